@@ -0,0 +1,86 @@
+// app/src/test/java/edu/ccrm/domain/EnrollmentStoreTest.java
+package edu.ccrm.domain;
+
+import edu.ccrm.service.StudentService;
+import edu.ccrm.util.CourseCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class EnrollmentStoreTest {
+    private static final int STRIPES = 64;
+    
+    @Test
+    void eachServiceHasItsOwnStore() {
+        StudentService a = new StudentService(true);
+        StudentService b = new StudentService(true);
+        assertNotSame(a.getEnrollmentStore(), b.getEnrollmentStore());
+        
+        Student s = new Student("E1", "ER1", "Own Store", "e@x.edu");
+        a.addStudent(s);
+        s.addEnrollment(new Enrollment(s, course("OWN-101")));
+        assertEquals(1, a.getEnrollmentStore().size());
+        assertEquals(0, b.getEnrollmentStore().size());
+    }
+    
+    // A reads its rows lock-free while its row is freed and handed to B
+    // (same stripe) over and over: A must never see B's course or grade
+    @Test
+    void staleReadersNeverSeeRecycledRows() throws Exception {
+        EnrollmentStore store = new EnrollmentStore();
+        Course mine = course("OWN-101");
+        Course theirs = course("OTH-202");
+        Student[] students = new Student[STRIPES + 1];
+        for (int i = 0; i < students.length; i++) {
+            students[i] = new Student("G" + i, "GR" + i, "Student " + i, "g@x.edu");
+            students[i].setEnrollmentStore(store);
+            students[i].addEnrollment(new Enrollment(students[i], mine));
+        }
+        Student a = students[0];
+        Student b = students[STRIPES];
+        a.getEnrollments().get(0).setGrade(Grade.A);
+        
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger bad = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (!stop.get()) {
+                for (Enrollment e : a.getEnrollments()) {
+                    if (e.getCourse() != mine || e.getGrade() != Grade.A) {
+                        bad.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reader.start();
+        long end = System.nanoTime() + 500_000_000L;
+        while (System.nanoTime() < end) {
+            a.removeEnrollment(a.getEnrollments().get(0));
+            Enrollment other = new Enrollment(b, theirs);
+            other.setGrade(Grade.F);
+            b.addEnrollment(other);
+            b.removeEnrollment(b.getEnrollment(theirs.getCode(), theirs.getSemester()));
+            Enrollment again = new Enrollment(a, mine);
+            again.setGrade(Grade.A);
+            a.addEnrollment(again);
+        }
+        stop.set(true);
+        reader.join();
+        
+        assertEquals(0, bad.get());
+        assertEquals(students.length, store.size());
+    }
+    
+    private static Course course(String code) {
+        return new Course.Builder()
+                .setCode(CourseCode.of(code))
+                .setTitle(code)
+                .setCredits(3)
+                .setSemester(Semester.FALL)
+                .setDepartment("Test")
+                .build();
+    }
+}
\ No newline at end of file
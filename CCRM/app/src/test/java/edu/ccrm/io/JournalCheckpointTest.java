@@ -0,0 +1,90 @@
+// app/src/test/java/edu/ccrm/io/JournalCheckpointTest.java
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.InstructorService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.util.CourseCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Records replaced under the same key (course code, instructor id) while
+// enrollments and courses still point at the old objects: the checkpoint must
+// go through and both snapshot readers must give back what was live
+class JournalCheckpointTest {
+    @TempDir
+    Path dir;
+    
+    @Test
+    void checkpointAfterReplacingCourseAndInstructor() throws Exception {
+        StudentService stu = new StudentService();
+        CourseService crs = new CourseService();
+        InstructorService inst = new InstructorService();
+        Journal j = new Journal(dir, 5, false);
+        j.recover(stu, crs, inst);
+        stu.setMutationListener(j);
+        crs.setMutationListener(j);
+        inst.setMutationListener(j);
+        
+        inst.addInstructor(new Instructor("I1", "Old Name", "i@x.edu", "CS"));
+        Course fall = course(3, Semester.FALL, inst.getInstructorById("I1"));
+        crs.addCourse(fall);
+        Student s = new Student("S1", "R1", "Ann", "a@x.edu");
+        stu.addStudent(s);
+        stu.enrollStudentInCourse(s, fall);
+        
+        // Same code and id again; s and fall keep the old objects
+        crs.addCourse(course(4, Semester.SPRING, null));
+        inst.addInstructor(new Instructor("I1", "New Name", "i@x.edu", "CS"));
+        stu.enrollStudentInCourse(s, crs.getCourseByCode(CourseCode.of("ABC-100")));
+        
+        j.checkpoint(stu, crs, inst);
+        j.close();
+        
+        check(false);
+        check(true);
+    }
+    
+    private void check(boolean lazy) throws Exception {
+        StudentService stu = new StudentService();
+        CourseService crs = new CourseService();
+        InstructorService inst = new InstructorService();
+        Journal j = new Journal(dir, 5, lazy);
+        j.recover(stu, crs, inst);
+        j.close();
+        
+        Student s = stu.getStudentById("S1");
+        assertEquals(3, s.getSemesterCredits(Semester.FALL));
+        assertEquals(4, s.getSemesterCredits(Semester.SPRING));
+        assertEquals(7, s.getTotalCredits());
+        assertTrue(s.checkTotals());
+        
+        Course now = crs.getCourseByCode(CourseCode.of("ABC-100"));
+        assertEquals(4, now.getCredits());
+        assertEquals(1, crs.getCourseRecords().size());
+        
+        // The retired version's teacher resolves to the current I1
+        Course old = s.getEnrollment(CourseCode.of("ABC-100"), Semester.FALL).getCourse();
+        assertEquals("New Name", old.getInstructor().getFullName());
+    }
+    
+    private static Course course(int credits, Semester sem, Instructor teacher) {
+        return new Course.Builder()
+                .setCode(CourseCode.of("ABC-100"))
+                .setTitle("Course " + credits)
+                .setCredits(credits)
+                .setInstructor(teacher)
+                .setSemester(sem)
+                .setDepartment("CS")
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+// app/src/test/java/edu/ccrm/io/JournalRefusalTest.java
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.InstructorService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.util.CourseCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// A journal that can't log a change must stop it before memory changes
+class JournalRefusalTest {
+    @TempDir
+    Path dir;
+    
+    @Test
+    void closedJournalLeavesServicesAlone() throws Exception {
+        StudentService stu = new StudentService();
+        CourseService crs = new CourseService();
+        Journal j = new Journal(dir, 5, false);
+        j.recover(stu, crs, new InstructorService());
+        stu.setMutationListener(j);
+        crs.setMutationListener(j);
+        
+        Course c = new Course.Builder()
+                .setCode(CourseCode.of("ABC-100"))
+                .setTitle("Course")
+                .setCredits(3)
+                .setSemester(Semester.FALL)
+                .setDepartment("CS")
+                .build();
+        crs.addCourse(c);
+        Student s = new Student("S1", "R1", "Ann", "a@x.edu");
+        stu.addStudent(s);
+        j.close();
+        
+        assertThrows(IllegalStateException.class, () -> stu.addStudent(new Student("S2", "R2", "Bob", "b@x.edu")));
+        assertNull(stu.getStudentById("S2"));
+        assertThrows(IllegalStateException.class, () -> stu.enrollStudentInCourse(s, c));
+        assertEquals(0, s.getEnrollmentCount());
+        assertThrows(IllegalStateException.class, () -> crs.deactivateCourse(c.getCode()));
+        assertEquals(c, crs.getCourseByCode(c.getCode()));
+    }
+    
+    @Test
+    void unrecoveredJournalRefusesChanges() {
+        StudentService stu = new StudentService();
+        stu.setMutationListener(new Journal(dir, 5, false));
+        assertThrows(IllegalStateException.class, () -> stu.addStudent(new Student("S1", "R1", "Ann", "a@x.edu")));
+        assertEquals(0, stu.getStudentCount());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+// app/src/test/java/edu/ccrm/service/StudentServiceConcurrencyTest.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.util.CourseCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Many threads enrolling the same few students at once: the credit limit and
+// the duplicate check must hold, and the running totals must match a recompute
+class StudentServiceConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int STUDENTS = 50;
+    private static final int COURSES = 12;
+    private static final int ROUNDS = 20;
+    
+    @Test
+    void creditLimitHoldsUnderContention() throws Exception {
+        StudentService svc = new StudentService(true);
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            // Mixed 3/4 credits so the limit isn't a multiple of one size
+            courses.add(new Course.Builder()
+                    .setCode(CourseCode.of("STR-" + (100 + i)))
+                    .setTitle("Stress " + i)
+                    .setCredits(i % 2 == 0 ? 3 : 4)
+                    .setSemester(Semester.FALL)
+                    .setDepartment("Test")
+                    .build());
+        }
+        
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Student> students = new ArrayList<>();
+            for (int i = 0; i < STUDENTS; i++) {
+                Student s = new Student("T" + round + "-" + i, "TR" + round + "-" + i, "Student " + i, "t@x.edu");
+                svc.addStudent(s);
+                students.add(s);
+            }
+            
+            AtomicInteger enrolled = new AtomicInteger();
+            CountDownLatch go = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Random rnd = new Random(round * 31L + t);
+                done.add(pool.submit(() -> {
+                    go.await();
+                    // Every thread tries every (student, course) pair, in its own order
+                    List<int[]> pairs = new ArrayList<>();
+                    for (int s = 0; s < STUDENTS; s++) {
+                        for (int c = 0; c < COURSES; c++) {
+                            pairs.add(new int[] { s, c });
+                        }
+                    }
+                    Collections.shuffle(pairs, rnd);
+                    for (int[] p : pairs) {
+                        try {
+                            svc.enrollStudentInCourse(students.get(p[0]), courses.get(p[1]));
+                            enrolled.incrementAndGet();
+                        } catch (DuplicateEnrollmentException | MaxCreditLimitExceededException e) {
+                            // expected: someone else got there first
+                        }
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> f : done) {
+                f.get();
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+            
+            int rows = 0;
+            for (Student s : students) {
+                int credits = s.getSemesterCredits(Semester.FALL);
+                assertTrue(credits <= StudentService.MAX_CREDITS, s.getRegNo() + " has " + credits + " credits");
+                // Room left for nothing: every course would push it over, or is already taken
+                for (Course c : courses) {
+                    assertTrue(s.isEnrolledIn(c) || credits + c.getCredits() > StudentService.MAX_CREDITS);
+                }
+                assertTrue(s.checkTotals(), "running totals out of sync for " + s.getRegNo());
+                rows += s.getEnrollmentCount();
+            }
+            assertEquals(enrolled.get(), rows, "successful enroll calls vs stored enrollments");
+        }
+    }
+}
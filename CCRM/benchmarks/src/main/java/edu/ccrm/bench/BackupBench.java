@@ -0,0 +1,71 @@
+// benchmarks/src/main/java/edu/ccrm/bench/BackupBench.java
+package edu.ccrm.bench;
+
+import edu.ccrm.io.BackupReport;
+import edu.ccrm.io.DatasetGenerator;
+import edu.ccrm.io.FileService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// backupData over a data directory filled by DatasetGenerator.
+// "full" starts every backup from an empty backup directory, "incremental"
+// backs up unchanged data on top of the previous backup (all hard links).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BackupBench {
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int size;
+    
+    @Param({ "full", "incremental" })
+    public String kind;
+    
+    private Path backups;
+    private FileService files;
+    private int count;
+    
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Path root = BenchData.useTempDirs();
+        backups = root.resolve("backups");
+        new DatasetGenerator(BenchData.SEED, size).generate(root.resolve("data"));
+        files = new FileService();
+    }
+    
+    // full: start from nothing; incremental: keep just the previous backup to
+    // link against, so the backup folder doesn't grow with every invocation
+    @Setup(Level.Invocation)
+    public void clearBackups() throws IOException {
+        Path keep = kind.equals("incremental") && count > 0 ? backups.resolve("bench-" + (count - 1)) : null;
+        try (Stream<Path> all = Files.walk(backups)) {
+            all.sorted(Comparator.reverseOrder())
+                    .filter(p -> !p.equals(backups) && (keep == null || !p.startsWith(keep)))
+                    .forEach(p -> p.toFile().delete());
+        }
+    }
+    
+    @Benchmark
+    public BackupReport backupData() throws Exception {
+        return files.backupData("bench-" + count++);
+    }
+}
@@ -0,0 +1,105 @@
+// benchmarks/src/main/java/edu/ccrm/bench/BenchData.java
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.util.CourseCode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// In-memory dataset for the service benchmarks (file benchmarks use
+// DatasetGenerator). Same seed -> same students, courses, enrollments and
+// grades, so runs on different commits measure the same data
+final class BenchData {
+    static final long SEED = 42;
+    static final int ENROLLS_PER_STUDENT = 4;
+    
+    private static final String[] FIRST = {
+        "Aarav", "Diya", "Ishaan", "Meera", "Kabir", "Ananya", "Rohan", "Saanvi", "Vikram", "Priya",
+        "Arjun", "Kavya", "Nikhil", "Tara", "Rahul", "Neha", "Dev", "Isha", "Karan", "Pooja"
+    };
+    private static final String[] LAST = {
+        "Sharma", "Verma", "Iyer", "Reddy", "Nair", "Gupta", "Menon", "Rao", "Kapoor", "Bose",
+        "Das", "Joshi", "Pillai", "Mehta", "Singh", "Chopra", "Desai", "Kulkarni", "Banerjee", "Patel"
+    };
+    private static final String[] DEPTS = { "CSE", "MTH", "PHY", "CHM", "ECE", "MEC", "BIO", "HUM" };
+    
+    final StudentService students = new StudentService();
+    final CourseService courses = new CourseService();
+    final List<Student> studentList;
+    final List<Course> courseList;
+    
+    private BenchData(int n) {
+        Random rnd = new Random(SEED);
+        
+        // Roughly one course per 100 students, at least 60
+        int courseCount = Math.max(60, n / 100);
+        courseList = new ArrayList<>(courseCount);
+        Semester[] sems = Semester.values();
+        for (int i = 0; i < courseCount; i++) {
+            String dept = DEPTS[i % DEPTS.length];
+            Course c = new Course.Builder()
+                    .setCode(CourseCode.of(codeFor(i)))
+                    .setTitle(dept + " Topics " + (i + 1))
+                    .setCredits(3)
+                    .setSemester(sems[i % sems.length])
+                    .setDepartment(dept)
+                    .build();
+            courses.addCourse(c);
+            courseList.add(c);
+        }
+        
+        studentList = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String name = FIRST[rnd.nextInt(FIRST.length)] + " " + LAST[rnd.nextInt(LAST.length)];
+            Student s = new Student("S" + i, regNo(i), name, "s" + i + "@ccrm.edu");
+            students.addStudent(s);
+            studentList.add(s);
+            
+            for (int k = 0; k < ENROLLS_PER_STUDENT; k++) {
+                try {
+                    students.enrollStudentInCourse(s, courseList.get(rnd.nextInt(courseCount)));
+                } catch (Exception e) {
+                    // duplicate pick, just fewer enrollments for this one
+                }
+            }
+            for (Enrollment e : s.getEnrollments()) {
+                e.setGrade(Grade.values()[rnd.nextInt(Grade.values().length)]);
+            }
+        }
+    }
+    
+    static BenchData build(int n) {
+        return new BenchData(n);
+    }
+    
+    static String regNo(int i) {
+        return String.format("24BCE%07d", i);
+    }
+    
+    // AAA-000, AAA-001, ... in course order
+    static String codeFor(int i) {
+        int letters = i / 1000;
+        return "" + (char) ('A' + letters / 676) + (char) ('A' + letters / 26 % 26) + (char) ('A' + letters % 26)
+                + "-" + String.format("%03d", i % 1000);
+    }
+    
+    // Points AppConfig at a throwaway directory; must run before the first
+    // AppConfig.getInstance() in the (forked) benchmark JVM
+    static Path useTempDirs() throws IOException {
+        Path root = Files.createTempDirectory("ccrm-bench");
+        System.setProperty("ccrm.dataDir", root.resolve("data").toString());
+        System.setProperty("ccrm.backupDir", root.resolve("backups").toString());
+        return root;
+    }
+}
@@ -0,0 +1,51 @@
+// benchmarks/src/main/java/edu/ccrm/bench/BenchMain.java
+package edu.ccrm.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Plain JMH command line, except results default to JSON in
+// results/<git commit>.json so runs on two commits can be diffed.
+// Pass -rf/-rff to override, -Dccrm.rev=name to pick the file name.
+public class BenchMain {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder opts = new OptionsBuilder().parent(cli);
+        
+        if (!cli.getResult().hasValue() && !cli.getResultFormat().hasValue()) {
+            Path out = Paths.get("results", revision() + ".json");
+            Files.createDirectories(out.getParent());
+            opts.resultFormat(ResultFormatType.JSON).result(out.toString());
+            System.out.println("Results -> " + out.toAbsolutePath());
+        }
+        new Runner(opts.build()).run();
+    }
+    
+    private static String revision() {
+        String rev = System.getProperty("ccrm.rev");
+        if (rev != null) {
+            return rev;
+        }
+        try {
+            Process p = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+                String line = in.readLine();
+                if (p.waitFor() == 0 && line != null && !line.isBlank()) {
+                    return line.trim();
+                }
+            }
+        } catch (Exception e) {
+            // not in a git checkout
+        }
+        return "local";
+    }
+}
@@ -0,0 +1,61 @@
+// benchmarks/src/main/java/edu/ccrm/bench/FileServiceBench.java
+package edu.ccrm.bench;
+
+import edu.ccrm.io.DatasetGenerator;
+import edu.ccrm.io.FileService;
+import edu.ccrm.io.ImportReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// CSV export of the in-memory students, and (streaming / parallel) import
+// of a DatasetGenerator students.csv of the same size
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FileServiceBench {
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int size;
+    
+    private BenchData data;
+    private FileService files;
+    
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Path root = BenchData.useTempDirs();
+        new DatasetGenerator(BenchData.SEED, size).generate(root.resolve("data"));
+        data = BenchData.build(size);
+        files = new FileService();
+    }
+    
+    @Benchmark
+    public void exportStudents() throws Exception {
+        files.exportStudents(data.studentList, "export.csv");
+    }
+    
+    @Benchmark
+    public ImportReport importStudents(Blackhole bh) throws Exception {
+        return files.importStudents("students.csv", bh::consume, false);
+    }
+    
+    @Benchmark
+    public ImportReport importStudentsParallel(Blackhole bh) throws Exception {
+        return files.importStudentsParallel("students.csv", bh::consume, false);
+    }
+}
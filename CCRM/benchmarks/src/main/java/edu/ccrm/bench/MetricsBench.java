@@ -0,0 +1,49 @@
+// benchmarks/src/main/java/edu/ccrm/bench/MetricsBench.java
+package edu.ccrm.bench;
+
+import edu.ccrm.metrics.LatencyHistogram;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// What the per-call timing in the services costs: the histogram update on its
+// own, and the full start/stop pair (which adds two System.nanoTime reads)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBench {
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final OperationMetrics op = MetricsRegistry.getInstance().operation("MetricsBench", "op");
+    private long value;
+    
+    @Benchmark
+    public void record() {
+        histogram.record(value++ & 0xFFFF);
+    }
+    
+    @Benchmark
+    public void startStop() {
+        op.stop(op.start());
+    }
+    
+    // Same pair with 4 threads hitting one operation
+    @Benchmark
+    @Threads(4)
+    public void startStopShared() {
+        op.stop(op.start());
+    }
+}
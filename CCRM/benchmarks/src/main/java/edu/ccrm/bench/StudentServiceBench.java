@@ -0,0 +1,117 @@
+// benchmarks/src/main/java/edu/ccrm/bench/StudentServiceBench.java
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.util.CourseCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Lookups, search, enroll/unenroll and GPA against one in-memory dataset
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StudentServiceBench {
+    // Power of two so picking the next key is a mask
+    private static final int KEYS = 1024;
+    
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int size;
+    
+    private BenchData data;
+    private String[] ids;
+    private String[] regNos;
+    private Student[] picks;
+    private final String[] queries = { "meera", "kapoor", "24bce00012", "topics" };
+    private Course extra;
+    private int cursor;
+    
+    @Setup(Level.Trial)
+    public void setup() {
+        data = BenchData.build(size);
+        
+        Random rnd = new Random(BenchData.SEED + 1);
+        ids = new String[KEYS];
+        regNos = new String[KEYS];
+        picks = new Student[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            Student s = data.studentList.get(rnd.nextInt(size));
+            ids[i] = s.getId();
+            regNos[i] = s.getRegNo();
+            picks[i] = s;
+        }
+        
+        // Nobody is enrolled here and every student has room for it
+        extra = new Course.Builder()
+                .setCode(CourseCode.of("ZZZ-999"))
+                .setTitle("Benchmark Elective")
+                .setCredits(3)
+                .setSemester(Semester.FALL)
+                .setDepartment("HUM")
+                .build();
+        data.courses.addCourse(extra);
+    }
+    
+    private int next() {
+        return cursor++ & (KEYS - 1);
+    }
+    
+    @Benchmark
+    public Student getStudentById() {
+        return data.students.getStudentById(ids[next()]);
+    }
+    
+    @Benchmark
+    public Student getStudentByRegNo() {
+        return data.students.getStudentByRegNo(regNos[next()]);
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Student> search() {
+        return data.students.search(queries[next() & (queries.length - 1)]);
+    }
+    
+    // Enroll then drop again, so the dataset stays the same size
+    @Benchmark
+    public Student enrollStudentInCourse() throws Exception {
+        Student s = picks[next()];
+        data.students.enrollStudentInCourse(s, extra);
+        data.students.unenrollStudentFromCourse(s, extra);
+        return s;
+    }
+    
+    @Benchmark
+    public double calculateGPA() {
+        return picks[next()].calculateGPA();
+    }
+    
+    // GPA of every student, i.e. what reports pay per run
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double calculateGPAAll() {
+        double sum = 0;
+        for (Student s : data.studentList) {
+            sum += s.calculateGPA();
+        }
+        return sum;
+    }
+}
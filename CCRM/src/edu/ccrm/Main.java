@@ -5,7 +5,17 @@ import edu.ccrm.cli.CLIMenu;
 import edu.ccrm.config.AppConfig;
 
 public class Main {
+    private Main() {
+    }
+    
     public static void main(String[] args) {
+        // Headless: --batch <script|-> [--parallel]
+        if (args.length >= 2 && args[0].equals("--batch")) {
+            boolean parallel = args.length > 2 && args[2].equals("--parallel");
+            long failed = new CLIMenu(parallel).runBatch(args[1], parallel);
+            System.exit(failed == 0 ? 0 : 1);
+        }
+        
         System.out.println("=== Campus Course & Records Manager (CCRM) ===");
         System.out.println("Loading configuration...");
         
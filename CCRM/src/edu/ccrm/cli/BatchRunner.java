@@ -0,0 +1,369 @@
+// src/edu/ccrm/cli/BatchRunner.java
+package edu.ccrm.cli;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.io.BackupReport;
+import edu.ccrm.io.FileService;
+import edu.ccrm.io.Journal;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.InstructorService;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.util.CourseCode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Headless mode: runs a script of commands, one per line, comma separated
+// like the CSV files. Blank lines and lines starting with # are skipped.
+//
+//     add-student,id,regNo,name,email
+//     add-course,code,title,credits,SEMESTER,department[,instructorId]
+//     enroll,regNo,courseCode
+//     unenroll,regNo,courseCode
+//     grade,regNo,courseCode,letter
+//     deactivate-student,id
+//     export-students,file      export-courses,file
+//     backup[,name]             backup-archive[,name]
+//     checkpoint
+//
+// Lines are read in chunks. In parallel mode the per-student commands of a
+// chunk are grouped by regNo and the groups run on the common pool (same idea
+// as BulkEnrollmentService), so each student's commands still run in script
+// order. Every other command is a barrier: what came before it finishes first.
+// So is an add-student that reuses an id (already stored or earlier in the
+// chunk), since under another regNo it would land in a different group.
+// Failures don't stop the run; they are printed with their line number.
+class BatchRunner {
+    private static final int CHUNK = 16_384;
+    private static final int MAX_PRINTED_ERRORS = 1000;
+    
+    enum Op {
+        ADD_STUDENT("add-student", 5, true),
+        ADD_COURSE("add-course", 6, false),
+        ENROLL("enroll", 3, true),
+        UNENROLL("unenroll", 3, true),
+        GRADE("grade", 4, true),
+        DEACTIVATE_STUDENT("deactivate-student", 2, false),
+        EXPORT_STUDENTS("export-students", 2, false),
+        EXPORT_COURSES("export-courses", 2, false),
+        BACKUP("backup", 1, false),
+        BACKUP_ARCHIVE("backup-archive", 1, false),
+        CHECKPOINT("checkpoint", 1, false);
+        
+        private final String name;
+        private final int minFields;
+        // Only touches one student, keyed by regNo; safe to run beside other students
+        private final boolean perStudent;
+        
+        Op(String name, int minFields, boolean perStudent) {
+            this.name = name;
+            this.minFields = minFields;
+            this.perStudent = perStudent;
+        }
+        
+        static Op of(String name) {
+            for (Op op : values()) {
+                if (op.name.equals(name)) return op;
+            }
+            return null;
+        }
+        
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+    
+    private static final class Command {
+        final long lineNo;
+        final Op op;
+        final String[] f;
+        String error;
+        
+        Command(long lineNo, Op op, String[] f) {
+            this.lineNo = lineNo;
+            this.op = op;
+            this.f = f;
+        }
+        
+        // add-student has the regNo second, the others first
+        String regNo() {
+            return op == Op.ADD_STUDENT ? f[2] : f[1];
+        }
+    }
+    
+    private final StudentService stuService;
+    private final CourseService crsService;
+    private final InstructorService instService;
+    private final FileService fileSvc;
+    private final Journal journal;
+    private final boolean parallel;
+    
+    private PrintWriter out;
+    private final Map<Op, long[]> counts = new EnumMap<>(Op.class); // ok, failed
+    private final Set<String> chunkIds = new HashSet<>(); // add-student ids in the current chunk
+    private long failed;
+    
+    BatchRunner(StudentService stuService, CourseService crsService, InstructorService instService,
+            FileService fileSvc, Journal journal, boolean parallel) {
+        this.stuService = stuService;
+        this.crsService = crsService;
+        this.instService = instService;
+        this.fileSvc = fileSvc;
+        this.journal = journal;
+        this.parallel = parallel;
+    }
+    
+    // script "-" reads stdin. Returns the number of failed commands.
+    long run(String script) throws IOException {
+        out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        long start = System.nanoTime();
+        long total = 0;
+        
+        try (BufferedReader in = open(script)) {
+            List<Command> chunk = new ArrayList<>(CHUNK);
+            String line;
+            long lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                Command cmd = parse(lineNo, line);
+                if (cmd == null) continue;
+                total++;
+                
+                if (cmd.error != null || cmd.op.perStudent && !reusesId(cmd)) {
+                    chunk.add(cmd);
+                    if (chunk.size() == CHUNK) {
+                        runChunk(chunk);
+                    }
+                } else {
+                    // Barrier
+                    runChunk(chunk);
+                    execute(cmd);
+                    report(cmd);
+                }
+            }
+            runChunk(chunk);
+        }
+        
+        long nanos = System.nanoTime() - start;
+        summary(total, nanos);
+        out.flush();
+        return failed;
+    }
+    
+    private BufferedReader open(String script) throws IOException {
+        if (script.equals("-")) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16);
+        }
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(Path.of(script)),
+                StandardCharsets.UTF_8), 1 << 16);
+    }
+    
+    private boolean reusesId(Command cmd) {
+        if (!parallel || cmd.op != Op.ADD_STUDENT) {
+            return false;
+        }
+        String id = cmd.f[1];
+        return !chunkIds.add(id) || stuService.getStudentRecord(id) != null;
+    }
+    
+    // null for blank lines and comments; unknown or short commands come back
+    // with the error already set
+    private Command parse(long lineNo, String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.charAt(0) == '#') {
+            return null;
+        }
+        String[] f = trimmed.split(",");
+        for (int i = 0; i < f.length; i++) {
+            f[i] = f[i].trim();
+        }
+        
+        Op op = Op.of(f[0]);
+        Command cmd = new Command(lineNo, op, f);
+        if (op == null) {
+            cmd.error = "Unknown command: " + f[0];
+        } else if (f.length < op.minFields) {
+            cmd.error = op + " needs " + (op.minFields - 1) + " fields, got " + (f.length - 1);
+        }
+        return cmd;
+    }
+    
+    private void runChunk(List<Command> chunk) {
+        if (chunk.isEmpty()) return;
+        
+        if (parallel && chunk.size() > 1) {
+            Map<String, List<Command>> groups = new LinkedHashMap<>();
+            for (Command cmd : chunk) {
+                if (cmd.error == null) {
+                    groups.computeIfAbsent(cmd.regNo(), k -> new ArrayList<>()).add(cmd);
+                }
+            }
+            groups.values().parallelStream().forEach(g -> g.forEach(this::execute));
+        } else {
+            for (Command cmd : chunk) {
+                if (cmd.error == null) {
+                    execute(cmd);
+                }
+            }
+        }
+        
+        // Reported in script order whatever order they ran in
+        for (Command cmd : chunk) {
+            report(cmd);
+        }
+        chunk.clear();
+        chunkIds.clear();
+    }
+    
+    private void execute(Command cmd) {
+        try {
+            String[] f = cmd.f;
+            switch (cmd.op) {
+                case ADD_STUDENT:
+                    stuService.addStudent(new Student(f[1], f[2], f[3], f[4]));
+                    break;
+                case ADD_COURSE:
+                    addCourse(f);
+                    break;
+                case ENROLL:
+                    stuService.enrollStudentInCourse(student(f[1]), course(f[2]));
+                    break;
+                case UNENROLL:
+                    stuService.unenrollStudentFromCourse(student(f[1]), course(f[2]));
+                    break;
+                case GRADE:
+                    grade(f);
+                    break;
+                case DEACTIVATE_STUDENT:
+                    if (stuService.getStudentById(f[1]) == null) {
+                        throw new IllegalArgumentException("Student not found: " + f[1]);
+                    }
+                    stuService.deactivateStudent(f[1]);
+                    break;
+                case EXPORT_STUDENTS:
+                    fileSvc.exportStudents(stuService.getAllStudents(), f[1]);
+                    break;
+                case EXPORT_COURSES:
+                    fileSvc.exportCourses(crsService.getAllCourses(), f[1]);
+                    break;
+                case BACKUP:
+                case BACKUP_ARCHIVE:
+                    backup(f, cmd.op == Op.BACKUP_ARCHIVE);
+                    break;
+                case CHECKPOINT:
+                    journal.checkpoint(stuService, crsService, instService);
+                    break;
+            }
+        } catch (Exception e) {
+            cmd.error = e.getMessage() != null ? e.getMessage() : e.toString();
+        }
+    }
+    
+    private Student student(String regNo) {
+        Student s = stuService.getStudentByRegNo(regNo);
+        if (s == null) {
+            throw new IllegalArgumentException("Student not found: " + regNo);
+        }
+        return s;
+    }
+    
+    private Course course(String code) {
+        Course c = CourseCode.isValid(code) ? crsService.getCourseByCode(CourseCode.of(code)) : null;
+        if (c == null) {
+            throw new IllegalArgumentException("Course not found: " + code);
+        }
+        return c;
+    }
+    
+    private void addCourse(String[] f) {
+        Instructor teacher = null;
+        if (f.length > 6 && !f[6].isEmpty()) {
+            teacher = instService.getInstructorById(f[6]);
+            if (teacher == null) {
+                throw new IllegalArgumentException("Instructor not found: " + f[6]);
+            }
+        }
+        Course c = new Course.Builder()
+                .setCode(CourseCode.of(f[1]))
+                .setTitle(f[2])
+                .setCredits(Integer.parseInt(f[3]))
+                .setInstructor(teacher)
+                .setSemester(Semester.valueOf(f[4].toUpperCase()))
+                .setDepartment(f[5])
+                .build();
+        crsService.addCourse(c);
+    }
+    
+    private void grade(String[] f) {
+        Student s = student(f[1]);
+        Course c = course(f[2]);
+        Grade g;
+        try {
+            g = Grade.valueOf(f[3].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown grade: " + f[3]);
+        }
+        Enrollment e = s.getEnrollment(c.getCode(), c.getSemester());
+        if (e == null) {
+            throw new IllegalArgumentException("Not enrolled: " + f[1] + " in " + f[2]);
+        }
+        e.setGrade(g);
+    }
+    
+    private void backup(String[] f, boolean archive) throws IOException {
+        String name = f.length > 1 && !f[1].isEmpty() ? f[1]
+                : "backup_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        journal.sync();
+        BackupReport report = archive ? fileSvc.backupArchive(name) : fileSvc.backupData(name);
+        out.println("Backup created: " + report);
+    }
+    
+    private void report(Command cmd) {
+        if (cmd.op != null) {
+            counts.computeIfAbsent(cmd.op, k -> new long[2])[cmd.error == null ? 0 : 1]++;
+        }
+        if (cmd.error == null) return;
+        
+        failed++;
+        if (failed <= MAX_PRINTED_ERRORS) {
+            out.println("line " + cmd.lineNo + ": " + cmd.error);
+        } else if (failed == MAX_PRINTED_ERRORS + 1) {
+            out.println("(further errors not shown)");
+        }
+    }
+    
+    private void summary(long total, long nanos) {
+        double secs = nanos / 1e9;
+        out.println(String.format("Ran %d commands in %.3f s (%.0f commands/s), %d failed%s",
+                total, secs, secs > 0 ? total / secs : 0, failed, parallel ? ", parallel" : ""));
+        for (Map.Entry<Op, long[]> e : counts.entrySet()) {
+            long[] c = e.getValue();
+            if (c[0] + c[1] > 0) {
+                out.println(String.format("  %-20s ok %d, failed %d", e.getKey(), c[0], c[1]));
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -4,67 +4,137 @@ package edu.ccrm.cli;
 import edu.ccrm.domain.*;
 import edu.ccrm.service.StudentService;
 import edu.ccrm.service.CourseService;
+import edu.ccrm.service.BulkEnrollmentService;
+import edu.ccrm.service.EnrollRequest;
+import edu.ccrm.service.GpaStats;
+import edu.ccrm.service.InstructorService;
+import edu.ccrm.service.ReportService;
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.io.BackupReport;
+import edu.ccrm.io.DatasetGenerator;
 import edu.ccrm.io.FileService;
+import edu.ccrm.io.ImportReport;
+import edu.ccrm.io.Journal;
+import edu.ccrm.io.RestoreReport;
+import edu.ccrm.metrics.LatencyHistogram;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
 import edu.ccrm.exception.DuplicateEnrollmentException;
 import edu.ccrm.exception.MaxCreditLimitExceededException;
 import edu.ccrm.exception.FileImportException;
 import edu.ccrm.util.CourseCode;
+import edu.ccrm.util.PageCursor;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class CLIMenu {
+    private static final int PAGE_SIZE = 20;
+    
     private final Scanner sc;
-    private final StudentService stuService;
-    private final CourseService crsService;
     private final FileService fileSvc;
-    private List<Instructor> teachers;
+    // Rebuilt from disk by loadState() (startup and after a restore)
+    private StudentService stuService;
+    private CourseService crsService;
+    private InstructorService instService;
+    private ReportService reportSvc;
+    private BulkEnrollmentService bulkSvc;
+    private Journal journal;
+    // Thread-safe services, for parallel batch runs
+    private final boolean concurrent;
     
     public CLIMenu() {
+        this(false);
+    }
+    
+    public CLIMenu(boolean concurrent) {
+        this.concurrent = concurrent;
         this.sc = new Scanner(System.in);
-        this.stuService = new StudentService();
-        this.crsService = new CourseService();
         this.fileSvc = new FileService();
-        setupSampleData();
+        // Timings are also readable from jconsole/VisualVM
+        MetricsRegistry.getInstance().registerMBeans();
+        loadState();
     }
     
-    private void setupSampleData() {
-        // Create some sample instructors
-        teachers = List.of(
-            new Instructor("I001", "Dr. Smith", "smith@university.edu", "Computer Science"),
-            new Instructor("I002", "Prof. Johnson", "johnson@university.edu", "Mathematics"),
-            new Instructor("I003", "Dr. Williams", "williams@university.edu", "Physics")
-        );
+    private void loadState() {
+        this.stuService = new StudentService(concurrent);
+        this.crsService = new CourseService();
+        this.instService = new InstructorService();
+        this.reportSvc = new ReportService(stuService);
+        this.bulkSvc = new BulkEnrollmentService(stuService, crsService);
+        
+        AppConfig cfg = AppConfig.getInstance();
+        this.journal = new Journal(cfg.getDataDirectory(), cfg.getJournalCommitMillis(), cfg.isLazySnapshot());
         
+        setupInstructors();
+        recoverState();
+        if (crsService.getActiveCount() == 0) {
+            setupSampleData();
+        }
+    }
+    
+    private void setupInstructors() {
+        // Create some sample instructors
+        instService.addInstructor(new Instructor("I001", "Dr. Smith", "smith@university.edu", "Computer Science"));
+        instService.addInstructor(new Instructor("I002", "Prof. Johnson", "johnson@university.edu", "Mathematics"));
+        instService.addInstructor(new Instructor("I003", "Dr. Williams", "williams@university.edu", "Physics"));
+    }
+    
+    // Rebuild from snapshot + journal, then start journaling new changes
+    private void recoverState() {
+        try {
+            Journal.RecoveryStats stats = journal.recover(stuService, crsService, instService);
+            if (stats.getRecords() > 0 || stats.getTornBytes() > 0) {
+                System.out.println("Recovered: " + stats);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The journal isn't open, so it would refuse every change; run without it
+            System.err.println("Journal recovery failed: " + e.getMessage());
+            System.err.println("Changes made this session will not be saved.");
+            return;
+        }
+        instService.setMutationListener(journal);
+        stuService.setMutationListener(journal);
+        crsService.setMutationListener(journal);
+    }
+    
+    private void setupSampleData() {
         // Add some sample courses
         try {
             Course cs1 = new Course.Builder()
-                    .setCode(new CourseCode("CS-101"))
+                    .setCode(CourseCode.of("CS-101"))
                     .setTitle("Intro to Programming")
                     .setCredits(3)
-                    .setInstructor(teachers.get(0))
+                    .setInstructor(instService.getInstructorById("I001"))
                     .setSemester(Semester.FALL)
                     .setDepartment("Computer Science")
                     .build();
             
             Course math1 = new Course.Builder()
-                    .setCode(new CourseCode("MTH-201"))
+                    .setCode(CourseCode.of("MTH-201"))
                     .setTitle("Calculus I")
                     .setCredits(4)
-                    .setInstructor(teachers.get(1))
+                    .setInstructor(instService.getInstructorById("I002"))
                     .setSemester(Semester.FALL)
                     .setDepartment("Mathematics")
                     .build();
             
             Course phys1 = new Course.Builder()
-                    .setCode(new CourseCode("PHY-301"))
+                    .setCode(CourseCode.of("PHY-301"))
                     .setTitle("Classical Mechanics")
                     .setCredits(3)
-                    .setInstructor(teachers.get(2))
+                    .setInstructor(instService.getInstructorById("I003"))
                     .setSemester(Semester.SPRING)
                     .setDepartment("Physics")
                     .build();
@@ -110,19 +180,44 @@ public class CLIMenu {
                     showJavaInfo();
                     break;
                 case 9:
+                    showStatistics();
+                    break;
+                case 10:
+                    closeJournal();
                     System.out.println("Bye!");
                     return;
                 default:
                     System.out.println("Not a valid option. Try again.");
             }
             
-            if (opt != 9) {
+            if (opt != 10) {
                 System.out.println("\nPress Enter to continue...");
                 sc.nextLine();
             }
         }
     }
     
+    // Headless run of a command script (see BatchRunner), no menus.
+    // Returns the number of commands that failed.
+    public long runBatch(String script, boolean parallel) {
+        try {
+            return new BatchRunner(stuService, crsService, instService, fileSvc, journal, parallel).run(script);
+        } catch (IOException e) {
+            System.err.println("Batch failed: " + e.getMessage());
+            return -1;
+        } finally {
+            closeJournal();
+        }
+    }
+    
+    private void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Journal close failed: " + e.getMessage());
+        }
+    }
+    
     private void showMainMenu() {
         System.out.println("\n=== MAIN MENU ===");
         System.out.println("1. Students");
@@ -133,7 +228,8 @@ public class CLIMenu {
         System.out.println("6. Backup");
         System.out.println("7. Reports");
         System.out.println("8. Java Info");
-        System.out.println("9. Exit");
+        System.out.println("9. Statistics");
+        System.out.println("10. Exit");
     }
     
     private void handleStudents() {
@@ -185,21 +281,26 @@ public class CLIMenu {
         String name = getStringInput("Name: ");
         String email = getStringInput("Email: ");
         
-        Student s = new Student(id, reg, name, email);
-        stuService.addStudent(s);
-        System.out.println("Student added!");
+        try {
+            Student s = new Student(id, reg, name, email);
+            stuService.addStudent(s);
+            System.out.println("Student added!");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
     }
     
     private void listStu() {
         System.out.println("\n--- All Students ---");
-        List<Student> students = stuService.getAllStudents();
-        if (students.isEmpty()) {
+        PageCursor<Student> cursor = new PageCursor<>(stuService::iterateStudents, getPageSize());
+        if (cursor.first().isEmpty()) {
             System.out.println("No students yet.");
-        } else {
-            for (Student s : students) {
-                System.out.println(s.getDisplayInfo());
-            }
+            return;
         }
+        browse(cursor, Student::getDisplayInfo, "regNo", reg -> {
+            Student target = stuService.getStudentByRegNo(reg);
+            return target != null ? s -> s == target : null;
+        });
     }
     
     private void findStu() {
@@ -327,10 +428,11 @@ public class CLIMenu {
         
         try {
             String codeStr = getStringInput("Code (like CS-101): ");
-            CourseCode code = new CourseCode(codeStr);
+            CourseCode code = CourseCode.of(codeStr);
             String title = getStringInput("Title: ");
             int credits = getIntInput("Credits: ");
             
+            List<Instructor> teachers = instService.getAllInstructors();
             System.out.println("Teachers:");
             for (int i = 0; i < teachers.size(); i++) {
                 System.out.println((i + 1) + ". " + teachers.get(i).getName());
@@ -377,12 +479,65 @@ public class CLIMenu {
     
     private void listCrs() {
         System.out.println("\n--- All Courses ---");
-        List<Course> courses = crsService.getAllCourses();
-        if (courses.isEmpty()) {
+        PageCursor<Course> cursor = new PageCursor<>(crsService::iterateCourses, getPageSize());
+        if (cursor.first().isEmpty()) {
             System.out.println("No courses.");
-        } else {
-            for (Course c : courses) {
-                System.out.println(c.toString());
+            return;
+        }
+        browse(cursor, Course::toString, "code", code -> {
+            Course target = CourseCode.isValid(code) ? crsService.getCourseByCode(CourseCode.of(code)) : null;
+            return target != null ? c -> c == target : null;
+        });
+    }
+    
+    private int getPageSize() {
+        int n = getIntInput("Page size (default " + PAGE_SIZE + "): ");
+        return n > 0 ? n : PAGE_SIZE;
+    }
+    
+    // Shows one page at a time; rows go through a buffer flushed once per page.
+    // finder turns a typed key into a match, or null if there is no such record.
+    private <T> void browse(PageCursor<T> cursor, Function<T, String> row, String key,
+            Function<String, Predicate<T>> finder) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+        boolean show = true;
+        while (true) {
+            if (show) {
+                List<T> page = cursor.getPage();
+                for (T item : page) {
+                    out.println(row.apply(item));
+                }
+                long from = cursor.getOffset() + 1;
+                out.println("-- rows " + from + "-" + (from + page.size() - 1)
+                        + (cursor.hasNext() ? "" : " (end)") + " --");
+                out.flush();
+            }
+            show = true;
+            
+            String cmd = getStringInput("[n]ext, [p]rev, [j]ump <" + key + ">, [q]uit: ");
+            if (cmd.isEmpty() || cmd.equalsIgnoreCase("n")) {
+                if (cursor.hasNext()) {
+                    cursor.next();
+                } else {
+                    // Nothing to move to; don't print the same page again
+                    System.out.println("You're on the last page.");
+                    show = false;
+                }
+            } else if (cmd.equalsIgnoreCase("p")) {
+                cursor.prev();
+            } else if (cmd.toLowerCase().startsWith("j")) {
+                String target = cmd.substring(1).trim();
+                if (target.isEmpty()) {
+                    target = getStringInput(key + ": ");
+                }
+                Predicate<T> match = finder.apply(target);
+                if (match == null || !cursor.jumpTo(match)) {
+                    System.out.println("Not found: " + target);
+                }
+            } else if (cmd.equalsIgnoreCase("q")) {
+                return;
+            } else {
+                System.out.println("Unknown choice.");
             }
         }
     }
@@ -407,7 +562,7 @@ public class CLIMenu {
         String codeStr = getStringInput("Course code: ");
         
         try {
-            CourseCode code = new CourseCode(codeStr);
+            CourseCode code = CourseCode.of(codeStr);
             Course c = crsService.getCourseByCode(code);
             
             if (c == null) {
@@ -417,6 +572,7 @@ public class CLIMenu {
             
             System.out.println("Current: " + c.toString());
             
+            List<Instructor> teachers = instService.getAllInstructors();
             System.out.println("Teachers:");
             for (int i = 0; i < teachers.size(); i++) {
                 System.out.println((i + 1) + ". " + teachers.get(i).getName());
@@ -441,7 +597,7 @@ public class CLIMenu {
         String codeStr = getStringInput("Course code: ");
         
         try {
-            CourseCode code = new CourseCode(codeStr);
+            CourseCode code = CourseCode.of(codeStr);
             crsService.deactivateCourse(code);
             System.out.println("Course removed.");
             
@@ -457,7 +613,8 @@ public class CLIMenu {
             System.out.println("1. Enroll Student");
             System.out.println("2. Unenroll Student");
             System.out.println("3. View Enrollments");
-            System.out.println("4. Back");
+            System.out.println("4. Bulk Enroll (CSV)");
+            System.out.println("5. Back");
             
             opt = getIntInput("Choose: ");
             
@@ -472,12 +629,15 @@ public class CLIMenu {
                     viewEnrollments();
                     break;
                 case 4:
+                    bulkEnroll();
+                    break;
+                case 5:
                     System.out.println("Going back...");
                     break;
                 default:
                     System.out.println("Invalid.");
             }
-        } while (opt != 4);
+        } while (opt != 5);
     }
     
     private void enrollStu() {
@@ -493,7 +653,7 @@ public class CLIMenu {
         String codeStr = getStringInput("Course code: ");
         
         try {
-            CourseCode code = new CourseCode(codeStr);
+            CourseCode code = CourseCode.of(codeStr);
             Course c = crsService.getCourseByCode(code);
             
             if (c == null) {
@@ -522,7 +682,7 @@ public class CLIMenu {
         String codeStr = getStringInput("Course code: ");
         
         try {
-            CourseCode code = new CourseCode(codeStr);
+            CourseCode code = CourseCode.of(codeStr);
             Course c = crsService.getCourseByCode(code);
             
             if (c == null) {
@@ -559,6 +719,34 @@ public class CLIMenu {
         }
     }
     
+    private void bulkEnroll() {
+        System.out.println("\n--- Bulk Enroll ---");
+        try {
+            String file = getStringInput("Filename (regNo,courseCode per line): ");
+            List<EnrollRequest> reqs = fileSvc.importEnrollRequests(file);
+            
+            long start = System.nanoTime();
+            Map<EnrollRequest.Outcome, Integer> counts = bulkSvc.enrollAll(reqs);
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            
+            System.out.println("Processed " + reqs.size() + " requests in " + ms + " ms:");
+            for (Map.Entry<EnrollRequest.Outcome, Integer> e : counts.entrySet()) {
+                System.out.println("  " + e.getKey() + ": " + e.getValue());
+            }
+            
+            // Show the first few failures so the file can be fixed
+            List<EnrollRequest> failed = reqs.stream()
+                    .filter(r -> !r.isEnrolled())
+                    .limit(20)
+                    .collect(Collectors.toList());
+            for (EnrollRequest r : failed) {
+                System.out.println("  " + r);
+            }
+        } catch (Exception e) {
+            System.out.println("Bulk enroll failed: " + e.getMessage());
+        }
+    }
+    
     private void handleGrades() {
         int opt;
         do {
@@ -598,7 +786,7 @@ public class CLIMenu {
         String codeStr = getStringInput("Course code: ");
         
         try {
-            CourseCode code = new CourseCode(codeStr);
+            CourseCode code = CourseCode.of(codeStr);
             
            
             Enrollment e = null;
@@ -648,7 +836,9 @@ public class CLIMenu {
             System.out.println("2. Import Students");
             System.out.println("3. Export Courses");
             System.out.println("4. Import Courses");
-            System.out.println("5. Back");
+            System.out.println("5. Import Instructors");
+            System.out.println("6. Generate Test Dataset");
+            System.out.println("7. Back");
             
             opt = getIntInput("Choose: ");
             
@@ -666,12 +856,18 @@ public class CLIMenu {
                     importCrs();
                     break;
                 case 5:
+                    importInst();
+                    break;
+                case 6:
+                    generateDataset();
+                    break;
+                case 7:
                     System.out.println("Going back...");
                     break;
                 default:
                     System.out.println("Invalid.");
             }
-        } while (opt != 5);
+        } while (opt != 7);
     }
     
     private void exportStu() {
@@ -687,13 +883,10 @@ public class CLIMenu {
     private void importStu() {
         try {
             String file = getStringInput("Filename: ");
-            List<Student> imported = fileSvc.importStudents(file);
-            
-            for (Student s : imported) {
-                stuService.addStudent(s);
-            }
+            ImportReport report = fileSvc.importStudents(file, stuService::addStudent, false);
             
-            System.out.println("Imported " + imported.size() + " students.");
+            System.out.println("Imported " + report.getRows() + " students.");
+            printImportReport(report);
         } catch (Exception e) {
             System.out.println("Import failed: " + e.getMessage());
         }
@@ -712,51 +905,109 @@ public class CLIMenu {
     private void importCrs() {
         try {
             String file = getStringInput("Filename: ");
-            List<Course> imported = fileSvc.importCourses(file, teachers);
+            ImportReport report = fileSvc.importCourses(file, instService, crsService::addCourse, false);
             
-            for (Course c : imported) {
-                crsService.addCourse(c);
-            }
+            System.out.println("Imported " + report.getRows() + " courses.");
+            printImportReport(report);
+        } catch (Exception e) {
+            System.out.println("Import failed: " + e.getMessage());
+        }
+    }
+    
+    private void importInst() {
+        try {
+            String file = getStringInput("Filename: ");
+            ImportReport report = fileSvc.importInstructors(file, instService::addInstructor, false);
             
-            System.out.println("Imported " + imported.size() + " courses.");
+            System.out.println("Imported " + report.getRows() + " instructors.");
+            printImportReport(report);
         } catch (Exception e) {
             System.out.println("Import failed: " + e.getMessage());
         }
     }
     
+    // Writes into a folder under the data directory, so the import options
+    // can pick the files up as e.g. generated/students.csv
+    private void generateDataset() {
+        try {
+            long n = Long.parseLong(getStringInput("Number of students: ").trim());
+            String seedStr = getStringInput("Seed (42): ").trim();
+            long seed = seedStr.isEmpty() ? 42 : Long.parseLong(seedStr);
+            String folder = getStringInput("Folder (generated): ").trim();
+            Path dir = AppConfig.getInstance().getDataDirectory().resolve(folder.isEmpty() ? "generated" : folder);
+            
+            System.out.println(new DatasetGenerator(seed, n).generate(dir));
+        } catch (NumberFormatException e) {
+            System.out.println("Not a number: " + e.getMessage());
+        } catch (Exception e) {
+            System.out.println("Generation failed: " + e.getMessage());
+        }
+    }
+    
+    private void printImportReport(ImportReport report) {
+        if (report.hasErrors()) {
+            System.out.println(report.getErrorCount() + " bad lines skipped:");
+            for (String err : report.getErrors()) {
+                System.out.println("  " + err);
+            }
+        }
+        if (!report.getUnresolved().isEmpty()) {
+            System.out.println("Unknown instructor IDs (courses left without teacher): " + report.getUnresolved());
+        }
+        System.out.println(report);
+    }
+    
     private void handleBackups() {
         int opt;
         do {
             System.out.println("\n=== BACKUP ===");
             System.out.println("1. Create Backup");
-            System.out.println("2. Check Size");
-            System.out.println("3. Back");
+            System.out.println("2. Create Archive Backup");
+            System.out.println("3. List Backups");
+            System.out.println("4. Check Size");
+            System.out.println("5. Restore Backup");
+            System.out.println("6. Checkpoint Journal");
+            System.out.println("7. Back");
             
             opt = getIntInput("Choose: ");
             
             switch (opt) {
                 case 1:
-                    makeBackup();
+                    makeBackup(false);
                     break;
                 case 2:
-                    checkBackupSize();
+                    makeBackup(true);
                     break;
                 case 3:
+                    listBackups();
+                    break;
+                case 4:
+                    checkBackupSize();
+                    break;
+                case 5:
+                    restoreBackup();
+                    break;
+                case 6:
+                    checkpointJournal();
+                    break;
+                case 7:
                     System.out.println("Going back...");
                     break;
                 default:
                     System.out.println("Invalid.");
             }
-        } while (opt != 3);
+        } while (opt != 7);
     }
     
-    private void makeBackup() {
+    private void makeBackup(boolean archive) {
         try {
             String time = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             String backupName = "backup_" + time;
             
-            fileSvc.backupData(backupName);
-            System.out.println("Backup created: " + backupName);
+            // Get pending journal records on disk so the backup has them
+            journal.sync();
+            BackupReport report = archive ? fileSvc.backupArchive(backupName) : fileSvc.backupData(backupName);
+            System.out.println("Backup created: " + report);
             
             long size = fileSvc.getBackupSize(backupName);
             System.out.println("Size: " + size + " bytes");
@@ -766,6 +1017,62 @@ public class CLIMenu {
         }
     }
     
+    private void checkpointJournal() {
+        try {
+            journal.checkpoint(stuService, crsService, instService);
+            System.out.println("Snapshot written, journal emptied.");
+        } catch (IOException e) {
+            System.out.println("Checkpoint failed: " + e.getMessage());
+        }
+    }
+    
+    private void listBackups() {
+        try {
+            List<String> names = fileSvc.getBackups();
+            if (names.isEmpty()) {
+                System.out.println("No backups yet.");
+                return;
+            }
+            for (String name : names) {
+                System.out.println(name + " - " + fileSvc.getBackupSize(name) + " bytes");
+            }
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+    
+    private void restoreBackup() {
+        listBackups();
+        String name = getStringInput("Backup to restore: ");
+        if (!getStringInput("This replaces all current data. Type YES to continue: ").equals("YES")) {
+            System.out.println("Cancelled.");
+            return;
+        }
+        
+        // The journal file is about to be swapped out from under it
+        closeJournal();
+        try {
+            RestoreReport report = fileSvc.restoreBackup(name);
+            System.out.println("Restored " + report);
+            if (report.getPreviousData() != null) {
+                System.out.println("Previous data kept at " + report.getPreviousData());
+            }
+        } catch (IOException e) {
+            System.out.println("Restore failed, data left as it was: " + e.getMessage());
+            // Nothing on disk changed and memory still matches it, so just carry on journaling
+            try {
+                journal.reopen();
+            } catch (IOException ex) {
+                System.out.println("Could not reopen the journal: " + ex.getMessage());
+            }
+            return;
+        }
+        
+        long start = System.nanoTime();
+        loadState();
+        System.out.println("Reloaded in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+    
     private void checkBackupSize() {
         String name = getStringInput("Backup folder name: ");
         
@@ -806,27 +1113,65 @@ public class CLIMenu {
     private void gpaReport() {
         System.out.println("\n--- GPA Report ---");
         
-        List<Student> students = stuService.getAllStudents();
-        
-      
-        long excellent = students.stream().filter(s -> s.calculateGPA() >= 9.0).count();
-        long good = students.stream().filter(s -> s.calculateGPA() >= 7.5 && s.calculateGPA() < 9.0).count();
-        long average = students.stream().filter(s -> s.calculateGPA() >= 6.0 && s.calculateGPA() < 7.5).count();
-        long poor = students.stream().filter(s -> s.calculateGPA() > 0 && s.calculateGPA() < 6.0).count();
-        long none = students.stream().filter(s -> s.calculateGPA() == 0).count();
+        GpaStats stats = reportSvc.gpaStats(0);
         
         System.out.println("GPA Breakdown:");
-        System.out.println("9.0+: " + excellent);
-        System.out.println("7.5-8.9: " + good);
-        System.out.println("6.0-7.4: " + average);
-        System.out.println("<6.0: " + poor);
-        System.out.println("No GPA: " + none);
+        System.out.println("9.0+: " + stats.getExcellent());
+        System.out.println("7.5-8.9: " + stats.getGood());
+        System.out.println("6.0-7.4: " + stats.getAverage());
+        System.out.println("<6.0: " + stats.getPoor());
+        System.out.println("No GPA: " + stats.getNoGpa());
+        
+        if (stats.getGradedCount() > 0) {
+            System.out.println(String.format("Mean: %.2f  Median: %.2f  P90: %.2f  P99: %.2f",
+                    stats.getMean(), stats.getPercentile(50), 
+                    stats.getPercentile(90), stats.getPercentile(99)));
+        }
     }
     
     private void topStudents() {
         System.out.println("\n--- Top Students ---");
+        int n = getIntInput("How many (default 10): ");
+        if (n <= 0) n = 10;
         
-        System.out.println("Coming soon...");
+        List<Student> top = reportSvc.topStudents(n);
+        if (top.isEmpty()) {
+            System.out.println("No graded students yet.");
+            return;
+        }
+        for (int i = 0; i < top.size(); i++) {
+            Student s = top.get(i);
+            System.out.println((i + 1) + ". " + s.getRegNo() + " - " + s.getName() + 
+                    " - " + String.format("%.2f", s.calculateGPA()));
+        }
+    }
+    
+    // Per-operation call counts and latencies since startup (or the last reset)
+    private void showStatistics() {
+        System.out.println("\n--- Statistics (times in microseconds) ---");
+        System.out.println(String.format("%-45s %9s %6s %10s %10s %10s %10s %10s",
+                "Operation", "Calls", "Errors", "Mean", "P50", "P99", "P99.9", "Max"));
+        
+        int shown = 0;
+        for (OperationMetrics m : MetricsRegistry.getInstance().getOperations()) {
+            LatencyHistogram.Snapshot snap = m.snapshot();
+            if (snap.getCount() == 0) continue;
+            System.out.println(String.format("%-45s %9d %6d %10.1f %10.1f %10.1f %10.1f %10.1f",
+                    m, snap.getCount(), m.getErrors(), snap.getMean() / 1000.0,
+                    snap.getPercentile(0.50) / 1000.0, snap.getPercentile(0.99) / 1000.0,
+                    snap.getPercentile(0.999) / 1000.0, snap.getMax() / 1000.0));
+            shown++;
+        }
+        if (shown == 0) {
+            System.out.println("Nothing recorded yet.");
+            return;
+        }
+        
+        String ans = getStringInput("Reset counters? (y/n): ");
+        if (ans.equalsIgnoreCase("y")) {
+            MetricsRegistry.getInstance().resetAll();
+            System.out.println("Counters reset.");
+        }
     }
     
     private void showJavaInfo() {
@@ -10,12 +10,22 @@ public class AppConfig {
     private Path dataDirectory;
     private Path backupDirectory;
     private DateTimeFormatter dateFormatter;
+    private long journalCommitMillis;
+    private boolean lazySnapshot;
+    private int backupCompressionLevel;
     
     private AppConfig() {
         
-        dataDirectory = Paths.get("data");
-        backupDirectory = Paths.get("backups");
+        // -Dccrm.dataDir / -Dccrm.backupDir point these elsewhere (benchmarks, scripts)
+        dataDirectory = Paths.get(System.getProperty("ccrm.dataDir", "data"));
+        backupDirectory = Paths.get(System.getProperty("ccrm.backupDir", "backups"));
         dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        // Group commit window: journal records are fsynced at most this late
+        journalCommitMillis = 5;
+        // Memory-map snapshot.bin and build students on first lookup
+        lazySnapshot = true;
+        // Archive backups: 0 (store only) .. 9 (smallest, slowest); -Dccrm.backupCompressionLevel
+        backupCompressionLevel = compressionLevel(System.getProperty("ccrm.backupCompressionLevel", "6"));
         
        
         try {
@@ -30,6 +40,19 @@ public class AppConfig {
         }
     }
     
+    private static int compressionLevel(String value) {
+        int level;
+        try {
+            level = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            level = -1;
+        }
+        if (level < 0 || level > 9) {
+            throw new IllegalArgumentException("ccrm.backupCompressionLevel must be 0-9, got " + value);
+        }
+        return level;
+    }
+    
     public static synchronized AppConfig getInstance() {
         if (instance == null) {
             instance = new AppConfig();
@@ -41,4 +64,7 @@ public class AppConfig {
     public Path getDataDirectory() { return dataDirectory; }
     public Path getBackupDirectory() { return backupDirectory; }
     public DateTimeFormatter getDateFormatter() { return dateFormatter; }
+    public long getJournalCommitMillis() { return journalCommitMillis; }
+    public boolean isLazySnapshot() { return lazySnapshot; }
+    public int getBackupCompressionLevel() { return backupCompressionLevel; }
 }
\ No newline at end of file
@@ -31,6 +31,9 @@ public class Course {
         private Semester sem;
         private String dept;
         
+        public Builder() {
+        }
+        
         public Builder setCode(CourseCode c) {
             this.code = c;
             return this;
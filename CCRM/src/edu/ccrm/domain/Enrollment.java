@@ -2,34 +2,89 @@
 package edu.ccrm.domain;
 
 import java.time.LocalDate;
+import java.util.Objects;
 
+// Once added to a Student the enrollment's data lives in an EnrollmentStore
+// and this is just a handle on its row; Student.getEnrollments() hands out such views.
+// Before adding (or after removing) it holds its own grade.
 public class Enrollment {
     private Student stu;
     private Course crs;
     private LocalDate enrollDate;
-    private Grade grade;
+    private volatile Grade grade;   // own grade while detached, snapshot for views
+    private volatile long row = -1; // row handle in the student's store, -1 while detached
     
     public Enrollment(Student s, Course c) {
+        this(s, c, LocalDate.now());
+    }
+    
+    // For restoring saved enrollments
+    public Enrollment(Student s, Course c, LocalDate date) {
         this.stu = s;
         this.crs = c;
-        this.enrollDate = LocalDate.now();
+        this.enrollDate = date;
         this.grade = null;
     }
     
+    // View of a stored row
+    Enrollment(Student s, Course c, LocalDate date, Grade g, long row) {
+        this(s, c, date);
+        this.grade = g;
+        this.row = row;
+    }
+    
     public Student getStudent() { return stu; }
     public Course getCourse() { return crs; }
     public LocalDate getEnrollmentDate() { return enrollDate; }
-    public Grade getGrade() { return grade; }
     
-    public void setGrade(Grade g) { this.grade = g; }
+    public Grade getGrade() {
+        long r = rowIn(stu);
+        return r >= 0 ? stu.gradeAt(r, grade) : grade;
+    }
+    
+    public void setGrade(Grade g) {
+        if (rowIn(stu) >= 0) {
+            stu.regrade(this, g);
+        } else {
+            this.grade = g;
+        }
+    }
+    
+    // Our row if s still holds it, else -1 (row got removed, maybe reused since)
+    long rowIn(Student s) {
+        long r = row;
+        return r >= 0 && s == stu && s.holdsRow(r, crs) ? r : -1;
+    }
+    
+    void attach(long r) { this.row = r; }
+    
+    void detach(Grade g) {
+        this.grade = g;
+        this.row = -1;
+    }
     
     public boolean hasGrade() {
-        return grade != null;
+        return getGrade() != null;
+    }
+    
+    // Views are made fresh on every read, so compare by what they refer to
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Enrollment)) return false;
+        Enrollment e = (Enrollment) o;
+        return stu == e.stu && crs == e.crs && Objects.equals(enrollDate, e.enrollDate);
+    }
+    
+    @Override
+    public int hashCode() {
+        return (System.identityHashCode(stu) * 31 + System.identityHashCode(crs)) * 31 + Objects.hashCode(enrollDate);
     }
     
     @Override
     public String toString() {
-        return stu.getRegNo() + " in " + crs.getCode() + " on " + enrollDate + 
-               (grade != null ? " - Grade: " + grade : "");
+        Grade g = getGrade();
+        return stu.getRegNo() + " in " + crs.getCode() + " on " + enrollDate +
+               (g != null ? " - Grade: " + g : "");
     }
-}
\ No newline at end of file
+}
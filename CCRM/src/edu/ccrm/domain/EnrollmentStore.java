@@ -0,0 +1,349 @@
+// src/edu/ccrm/domain/EnrollmentStore.java
+package edu.ccrm.domain;
+
+import edu.ccrm.util.CourseCode;
+
+import java.lang.invoke.VarHandle;
+import java.lang.ref.Cleaner;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Struct-of-arrays home of attached enrollments: one row per enrollment
+// across primitive columns (course #, epoch day, course key, generation,
+// grade), 17 bytes a row. Each Student keeps handles on its rows in a Rows;
+// Student and Enrollment read through to here.
+//
+// Each StudentService has its own store (students no service has claimed use
+// the shared one). A store is split into stripes with their own columns,
+// lock and course table; a student's rows all live in the stripe it was
+// given on its first enrollment, so enrolling different students rarely
+// contends. Columns are split into fixed pages that never move once
+// allocated, so readers need no lock; per-row updates (grade) happen under
+// the owning student's lock.
+//
+// Freed rows are recycled, so a handle carries the row's generation, which
+// free() bumps. Lock-free readers check it after reading (valid()) and
+// treat a mismatch as "row gone", never as another student's data. A
+// student's rows are freed by removeEnrollment or, once the Student itself
+// is garbage, by a Cleaner, so dropped services don't leak rows. Courses are
+// counted by the rows using them and let go with the last one.
+public final class EnrollmentStore {
+    private static final int STRIPES = 64;
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE = 1 << PAGE_BITS; // rows per page
+    private static final int MASK = PAGE - 1;
+    private static final int ROW_BYTES = 4 + 4 + 4 + 4 + 1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    
+    private static final EnrollmentStore SHARED = new EnrollmentStore();
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final Grade[] GRADES = Grade.values();
+    
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicInteger nextStripe = new AtomicInteger();
+    
+    // For students that were never added to a StudentService
+    public static EnrollmentStore getInstance() {
+        return SHARED;
+    }
+    
+    public EnrollmentStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+    
+    // (code, semester) in one int; a student holds at most one row per key
+    static int key(CourseCode code, Semester sem) {
+        return code.pack() * 4 + (sem != null ? sem.ordinal() + 1 : 0);
+    }
+    
+    // A student's slot: its stripe and row handles. Holds no reference to
+    // the Student so the Cleaner can run once it's gone.
+    static final class Owner implements Runnable {
+        final Stripe stripe;
+        volatile Rows rows = Rows.EMPTY;
+        
+        Owner(Stripe stripe) {
+            this.stripe = stripe;
+        }
+        
+        @Override
+        public void run() {
+            stripe.release(this);
+        }
+    }
+    
+    // Called once per student, on its first enrollment
+    Owner register(Student s) {
+        Owner o = new Owner(stripes[nextStripe.getAndIncrement() & (STRIPES - 1)]);
+        CLEANER.register(s, o);
+        return o;
+    }
+    
+    // A student's row handles in enrollment order, plus a key -> position
+    // table once there are enough rows that scanning would cost. Never
+    // changed in place (with/without build a new one), so readers need no lock.
+    static final class Rows {
+        static final Rows EMPTY = new Rows(null, new long[0]);
+        private static final int SCAN = 8; // up to this many rows, just scan
+        
+        final long[] rows;
+        // Position + 1 per slot, 0 = empty; null while small
+        private final int[] table;
+        
+        private Rows(Stripe st, long[] rows) {
+            this.rows = rows;
+            this.table = rows.length > SCAN ? index(st, rows) : null;
+        }
+        
+        // Our live row for the key, or -1. A stale list can hold a handle
+        // whose row was freed (and maybe reused) since; valid() skips those.
+        long find(Stripe st, int key) {
+            if (table == null) {
+                for (long h : rows) {
+                    if (st.key(h) == key && st.valid(h)) return h;
+                }
+                return -1;
+            }
+            int mask = table.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                int pos = table[i] - 1;
+                if (pos < 0) return -1;
+                long h = rows[pos];
+                if (st.key(h) == key && st.valid(h)) return h;
+            }
+        }
+        
+        Rows with(Stripe st, long[] more) {
+            long[] out = Arrays.copyOf(rows, rows.length + more.length);
+            System.arraycopy(more, 0, out, rows.length, more.length);
+            return new Rows(st, out);
+        }
+        
+        Rows without(Stripe st, long handle) {
+            long[] out = new long[rows.length - 1];
+            int j = 0;
+            for (long h : rows) {
+                if (h != handle) {
+                    out[j++] = h;
+                }
+            }
+            return new Rows(st, out);
+        }
+        
+        // At most half full; built under the student's lock, so every row is live
+        private static int[] index(Stripe st, long[] rows) {
+            int size = 2;
+            while (size < rows.length * 2) {
+                size <<= 1;
+            }
+            int[] t = new int[size];
+            int mask = size - 1;
+            for (int pos = 0; pos < rows.length; pos++) {
+                int i = mix(st.key(rows[pos])) & mask;
+                while (t[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                t[i] = pos + 1;
+            }
+            return t;
+        }
+        
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+    
+    // One stripe's columns. A handle is (generation << 32) | row.
+    static final class Stripe {
+        // Column pages; the outer arrays are replaced when a page is added
+        private volatile int[][] courseCol = new int[0][];
+        private volatile int[][] dayCol = new int[0][];
+        private volatile int[][] keyCol = new int[0][];
+        private volatile int[][] genCol = new int[0][];
+        private volatile byte[][] gradeCol = new byte[0][];
+        
+        // Guarded by 'this'
+        private int rowCount;          // rows ever handed out (high-water mark)
+        private int[] freeRows = new int[16];
+        private int freeRowCount;
+        private final Map<Course, Integer> courseNo = new IdentityHashMap<>();
+        private int[] courseRows = new int[16]; // rows using each course #
+        private int[] freeCourses = new int[16];
+        private int freeCourseCount;
+        private int courseCount;
+        
+        // Course # -> course; copied on growth so readers don't lock
+        private volatile Course[] courses = new Course[16];
+        
+        // Caller holds the student's lock
+        synchronized long add(Course c, LocalDate date, Grade g) {
+            int row;
+            if (freeRowCount > 0) {
+                row = freeRows[--freeRowCount];
+            } else {
+                if ((rowCount & MASK) == 0 && (rowCount >>> PAGE_BITS) == courseCol.length) {
+                    addPage();
+                }
+                row = rowCount++;
+            }
+            
+            int p = row >>> PAGE_BITS;
+            int i = row & MASK;
+            courseCol[p][i] = courseIndex(c);
+            dayCol[p][i] = date != null ? (int) date.toEpochDay() : NO_DATE;
+            keyCol[p][i] = EnrollmentStore.key(c.getCode(), c.getSemester());
+            gradeCol[p][i] = (byte) (g != null ? g.ordinal() : -1);
+            return (long) genCol[p][i] << 32 | row;
+        }
+        
+        synchronized void free(long h) {
+            int row = (int) h;
+            int p = row >>> PAGE_BITS;
+            int i = row & MASK;
+            // New generation first, so a reader that sees the next owner's
+            // data also sees its handle is stale
+            genCol[p][i]++;
+            VarHandle.releaseFence();
+            
+            int no = courseCol[p][i];
+            if (--courseRows[no] == 0) {
+                // Last row on this course
+                courseNo.remove(courses[no]);
+                courses[no] = null;
+                if (freeCourseCount == freeCourses.length) {
+                    freeCourses = Arrays.copyOf(freeCourses, freeCourseCount * 2);
+                }
+                freeCourses[freeCourseCount++] = no;
+            }
+            if (freeRowCount == freeRows.length) {
+                freeRows = Arrays.copyOf(freeRows, freeRowCount * 2);
+            }
+            freeRows[freeRowCount++] = row;
+        }
+        
+        // Student was garbage collected: recycle its rows
+        private synchronized void release(Owner o) {
+            for (long h : o.rows.rows) {
+                free(h);
+            }
+        }
+        
+        private void addPage() {
+            courseCol = grow(courseCol, new int[PAGE]);
+            dayCol = grow(dayCol, new int[PAGE]);
+            keyCol = grow(keyCol, new int[PAGE]);
+            genCol = grow(genCol, new int[PAGE]);
+            gradeCol = grow(gradeCol, new byte[PAGE]);
+        }
+        
+        // Caller holds the stripe lock; counts one more row on the course
+        private int courseIndex(Course c) {
+            Integer known = courseNo.get(c);
+            if (known != null) {
+                courseRows[known]++;
+                return known;
+            }
+            int no = freeCourseCount > 0 ? freeCourses[--freeCourseCount] : courseCount++;
+            Course[] all = courses;
+            if (no == all.length) {
+                all = Arrays.copyOf(all, all.length * 2);
+                courseRows = Arrays.copyOf(courseRows, all.length);
+            }
+            all[no] = c;
+            courses = all;
+            courseNo.put(c, no);
+            courseRows[no] = 1;
+            return no;
+        }
+        
+        // Column reads on a handle from a student's row list. Without the
+        // student's lock the row may have been freed meanwhile: check valid()
+        // after reading. course() is null if its course was let go too.
+        Course course(long h) {
+            int row = (int) h;
+            return courses[courseCol[row >>> PAGE_BITS][row & MASK]];
+        }
+        
+        int key(long h) {
+            int row = (int) h;
+            return keyCol[row >>> PAGE_BITS][row & MASK];
+        }
+        
+        LocalDate date(long h) {
+            int row = (int) h;
+            int day = dayCol[row >>> PAGE_BITS][row & MASK];
+            return day != NO_DATE ? LocalDate.ofEpochDay(day) : null;
+        }
+        
+        Grade grade(long h) {
+            int row = (int) h;
+            int g = gradeCol[row >>> PAGE_BITS][row & MASK];
+            return g >= 0 ? GRADES[g] : null;
+        }
+        
+        // Still the row the handle was made for? Call after the reads it vouches for.
+        boolean valid(long h) {
+            VarHandle.acquireFence();
+            int row = (int) h;
+            return genCol[row >>> PAGE_BITS][row & MASK] == (int) (h >>> 32);
+        }
+        
+        // Caller holds the owning student's lock
+        void setGrade(long h, Grade g) {
+            int row = (int) h;
+            gradeCol[row >>> PAGE_BITS][row & MASK] = (byte) (g != null ? g.ordinal() : -1);
+        }
+        
+        synchronized int size() {
+            return rowCount - freeRowCount;
+        }
+        
+        synchronized int courseCount() {
+            return courseNo.size();
+        }
+        
+        long columnBytes() {
+            return (long) courseCol.length * PAGE * ROW_BYTES;
+        }
+    }
+    
+    private static <T> T[] grow(T[] pages, T page) {
+        T[] more = Arrays.copyOf(pages, pages.length + 1);
+        more[pages.length] = page;
+        return more;
+    }
+    
+    // Live enrollments
+    public int size() {
+        int n = 0;
+        for (Stripe st : stripes) {
+            n += st.size();
+        }
+        return n;
+    }
+    
+    // Course # entries in use, summed over stripes (a course used in
+    // several stripes counts once in each)
+    public int getCourseCount() {
+        int n = 0;
+        for (Stripe st : stripes) {
+            n += st.courseCount();
+        }
+        return n;
+    }
+    
+    // Bytes held by the column pages (allocated capacity, not just live rows)
+    public long getColumnBytes() {
+        long n = 0;
+        for (Stripe st : stripes) {
+            n += st.columnBytes();
+        }
+        return n;
+    }
+}
\ No newline at end of file
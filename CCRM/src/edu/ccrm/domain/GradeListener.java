@@ -0,0 +1,13 @@
+// src/edu/ccrm/domain/GradeListener.java
+package edu.ccrm.domain;
+
+// Told about every grade change on an enrollment a student owns
+public interface GradeListener {
+    // Called before the change is made; throwing stops it. A listener that
+    // can't record changes any more (a failed journal) refuses here, so
+    // memory never gets ahead of it.
+    default void beforeChange() {
+    }
+    
+    void gradeChanged(Enrollment e);
+}
@@ -32,6 +32,7 @@ public abstract class Person {
     public void setEmail(String e) { this.email = e; }
     
     public LocalDate getDateCreated() { return created; }
+    public void setDateCreated(LocalDate d) { this.created = d; }
     
     public boolean isActive() { return active; }
     public void setActive(boolean a) { this.active = a; }
@@ -1,18 +1,39 @@
 // src/edu/ccrm/domain/Student.java
 package edu.ccrm.domain;
 
+import edu.ccrm.util.CourseCode;
+
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class Student extends Person {
     private String regNo;
-    private List<Enrollment> enrolls;
+    
+    // Enrollments live in an EnrollmentStore; this is our slot there (stripe
+    // and row list, indexed by course + semester), null until the first
+    // enrollment. store is where that slot will be taken from.
+    private volatile EnrollmentStore.Owner slot;
+    private EnrollmentStore store;
+    
+    // Running totals so GPA/credits are O(1) reads.
+    // Kept in sync by add/removeEnrollment and Enrollment.setGrade.
+    // Writers hold this student's monitor; readers don't lock.
+    // Grade points * credits (in hundredths) and graded credits share one long,
+    // so a reader always sees a matching pair
+    private volatile long gradeTotals;
+    private volatile int totalCredits;
+    
+    // Credits taken per semester (by ordinal), for the credit-limit check
+    private final int[] semCredits = new int[Semester.values().length];
+    
+    private GradeListener gradeListener;
     
     public Student(String id, String reg, String name, String email) {
         super(id, name, email);
         this.regNo = reg;
-        this.enrolls = new ArrayList<>();
     }
     
     @Override
@@ -23,50 +44,226 @@ public class Student extends Person {
     public String getRegNo() { return regNo; }
     public void setRegNo(String r) { this.regNo = r; }
     
-    public List<Enrollment> getEnrollments() { return enrolls; }
+    // Fresh read-only views of the stored rows; go through add/removeEnrollment
+    // to change them so the totals stay right
+    public List<Enrollment> getEnrollments() {
+        EnrollmentStore.Owner o = slot;
+        if (o == null) {
+            return Collections.emptyList();
+        }
+        long[] rows = o.rows.rows;
+        List<Enrollment> views = new ArrayList<>(rows.length);
+        for (long h : rows) {
+            Enrollment e = view(o.stripe, h);
+            if (e != null) {
+                views.add(e);
+            }
+        }
+        return Collections.unmodifiableList(views);
+    }
     
-    public void addEnrollment(Enrollment e) {
-        enrolls.add(e);
+    public int getEnrollmentCount() {
+        EnrollmentStore.Owner o = slot;
+        return o != null ? o.rows.rows.length : 0;
     }
     
-    public void removeEnrollment(Enrollment e) {
-        enrolls.remove(e);
+    public void setGradeListener(GradeListener l) { this.gradeListener = l; }
+    
+    // Store our enrollments will go to (StudentService passes its own).
+    // Ignored once we have any: they stay where they are.
+    public synchronized void setEnrollmentStore(EnrollmentStore st) {
+        if (slot == null) {
+            this.store = st;
+        }
     }
     
-    public boolean isEnrolledIn(Course c) {
-        for (Enrollment e : enrolls) {
-            if (e.getCourse().equals(c)) {
-                return true;
-            }
+    public synchronized void addEnrollment(Enrollment e) {
+        EnrollmentStore.Owner o = slot();
+        long h = store(o.stripe, e);
+        o.rows = o.rows.with(o.stripe, new long[] { h });
+    }
+    
+    // Bulk version of addEnrollment for loaders: one row-list copy
+    // instead of one per enrollment
+    public synchronized void addEnrollments(List<Enrollment> list) {
+        EnrollmentStore.Owner o = slot();
+        long[] added = new long[list.size()];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = store(o.stripe, list.get(i));
         }
-        return false;
+        o.rows = o.rows.with(o.stripe, added);
     }
     
-    public double calculateGPA() {
-        if (enrolls.isEmpty()) return 0.0;
+    // Caller holds the lock; publishing the row list is up to the caller
+    private long store(EnrollmentStore.Stripe st, Enrollment e) {
+        Course c = e.getCourse();
+        Grade g = e.getGrade();
+        long h = st.add(c, e.getEnrollmentDate(), g);
+        e.attach(h);
         
-        double points = 0.0;
-        int credits = 0;
+        int cr = c.getCredits();
+        if (c.getSemester() != null) {
+            semCredits[c.getSemester().ordinal()] += cr;
+        }
+        totalCredits += cr;
+        if (g != null) {
+            addGraded(g, cr);
+        }
+        return h;
+    }
+    
+    public synchronized void removeEnrollment(Enrollment e) {
+        long h = e.rowIn(this);
+        if (h < 0) return;
         
-        for (Enrollment e : enrolls) {
-            if (e.hasGrade()) {
-                Course c = e.getCourse();
-                points += e.getGrade().getPoints() * c.getCredits();
-                credits += c.getCredits();
-            }
+        EnrollmentStore.Owner o = slot;
+        Grade g = o.stripe.grade(h);
+        e.detach(g);
+        o.rows = o.rows.without(o.stripe, h);
+        
+        Course c = e.getCourse();
+        int cr = c.getCredits();
+        if (c.getSemester() != null) {
+            semCredits[c.getSemester().ordinal()] -= cr;
+        }
+        totalCredits -= cr;
+        if (g != null) {
+            addGraded(g, -cr);
+        }
+        o.stripe.free(h);
+    }
+    
+    // Called by Enrollment.setGrade; swaps the grade under our lock so the totals can't race
+    synchronized void regrade(Enrollment e, Grade now) {
+        long h = e.rowIn(this);
+        if (h < 0) {
+            // Removed meanwhile; it's just a detached enrollment now
+            e.detach(now);
+            return;
         }
+        if (gradeListener != null) {
+            gradeListener.beforeChange();
+        }
+        EnrollmentStore.Stripe st = slot.stripe;
+        Grade old = st.grade(h);
+        st.setGrade(h, now);
         
-        return credits > 0 ? points / credits : 0.0;
+        int cr = e.getCourse().getCredits();
+        if (old != null) {
+            addGraded(old, -cr);
+        }
+        if (now != null) {
+            addGraded(now, cr);
+        }
+        if (gradeListener != null) {
+            gradeListener.gradeChanged(e);
+        }
+    }
+    
+    // Handle still ours and still for this course? (rows are recycled after removal)
+    boolean holdsRow(long h, Course c) {
+        return findRow(c.getCode(), c.getSemester()) == h;
+    }
+    
+    // Grade in the row, or fallback if the row went away while we read it
+    Grade gradeAt(long h, Grade fallback) {
+        EnrollmentStore.Stripe st = slot.stripe;
+        Grade g = st.grade(h);
+        return st.valid(h) ? g : fallback;
+    }
+    
+    // Caller holds the lock
+    private EnrollmentStore.Owner slot() {
+        EnrollmentStore.Owner o = slot;
+        if (o == null) {
+            o = (store != null ? store : EnrollmentStore.getInstance()).register(this);
+            slot = o;
+            store = null;
+        }
+        return o;
+    }
+    
+    // null if the row went away while we were reading
+    private Enrollment view(EnrollmentStore.Stripe st, long h) {
+        Course c = st.course(h);
+        LocalDate date = st.date(h);
+        Grade g = st.grade(h);
+        return c != null && st.valid(h) ? new Enrollment(this, c, date, g, h) : null;
+    }
+    
+    // Handle on the enrollment in (code, sem), or -1
+    private long findRow(CourseCode code, Semester sem) {
+        EnrollmentStore.Owner o = slot;
+        return o != null ? o.rows.find(o.stripe, EnrollmentStore.key(code, sem)) : -1;
+    }
+    
+    // Caller holds the lock
+    private void addGraded(Grade g, int cr) {
+        long t = gradeTotals;
+        long points = (t >> 32) + Math.round(g.getPoints() * 100) * cr;
+        int credits = (int) t + cr;
+        gradeTotals = (points << 32) | (credits & 0xFFFFFFFFL);
+    }
+    
+    public boolean isEnrolledIn(Course c) {
+        return findRow(c.getCode(), c.getSemester()) >= 0;
+    }
+    
+    public boolean isEnrolledIn(CourseCode code, Semester sem) {
+        return findRow(code, sem) >= 0;
+    }
+    
+    public Enrollment getEnrollment(CourseCode code, Semester sem) {
+        long h = findRow(code, sem);
+        return h >= 0 ? view(slot.stripe, h) : null;
+    }
+    
+    public int getSemesterCredits(Semester sem) {
+        return sem != null ? semCredits[sem.ordinal()] : 0;
+    }
+    
+    public double calculateGPA() {
+        long t = gradeTotals;
+        int credits = (int) t;
+        return credits > 0 ? (t >> 32) / 100.0 / credits : 0.0;
     }
     
     public int getTotalCredits() {
-        return enrolls.stream()
-                .mapToInt(e -> e.getCourse().getCredits())
-                .sum();
+        return totalCredits;
+    }
+    
+    // Full recompute of the running totals, for tests/debugging
+    public synchronized boolean checkTotals() {
+        double points = 0.0;
+        int graded = 0;
+        int total = 0;
+        int[] perSem = new int[semCredits.length];
+        
+        EnrollmentStore.Owner o = slot;
+        for (long h : o != null ? o.rows.rows : new long[0]) {
+            Course c = o.stripe.course(h);
+            int cr = c.getCredits();
+            total += cr;
+            if (c.getSemester() != null) {
+                perSem[c.getSemester().ordinal()] += cr;
+            }
+            if (findRow(c.getCode(), c.getSemester()) != h) {
+                return false;
+            }
+            Grade g = o.stripe.grade(h);
+            if (g != null) {
+                points += g.getPoints() * cr;
+                graded += cr;
+            }
+        }
+        
+        long t = gradeTotals;
+        return Arrays.equals(perSem, semCredits) && total == totalCredits && graded == (int) t
+                && Math.abs(points - (t >> 32) / 100.0) < 1e-9;
     }
     
     @Override
     public String toString() {
-        return getName() + " (" + regNo + ") - " + enrolls.size() + " courses";
+        return getName() + " (" + regNo + ") - " + getEnrollmentCount() + " courses";
     }
 }
\ No newline at end of file
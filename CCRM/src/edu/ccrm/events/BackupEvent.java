@@ -0,0 +1,43 @@
+// src/edu/ccrm/events/BackupEvent.java
+package edu.ccrm.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One finished backup; failed ones aren't committed
+@Name("edu.ccrm.Backup")
+@Label("Backup")
+@Category({ "CCRM", "I/O" })
+@StackTrace(false)
+public class BackupEvent extends Event {
+    @Label("Name")
+    private String name;
+    
+    @Label("Archive")
+    private boolean archive;
+    
+    @Label("Files Copied")
+    private long copiedFiles;
+    
+    @Label("Files Linked")
+    private long linkedFiles;
+    
+    @Label("Bytes Copied")
+    @DataAmount(DataAmount.BYTES)
+    private long copiedBytes;
+    
+    public void finish(String name, boolean archive, long copiedFiles, long linkedFiles, long copiedBytes) {
+        if (shouldCommit()) {
+            this.name = name;
+            this.archive = archive;
+            this.copiedFiles = copiedFiles;
+            this.linkedFiles = linkedFiles;
+            this.copiedBytes = copiedBytes;
+            commit();
+        }
+    }
+}
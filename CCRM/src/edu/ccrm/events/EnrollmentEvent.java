@@ -0,0 +1,61 @@
+// src/edu/ccrm/events/EnrollmentEvent.java
+package edu.ccrm.events;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// One enroll call, including the wait for the student's stripe lock
+@Name("edu.ccrm.Enrollment")
+@Label("Enrollment")
+@Category("CCRM")
+@StackTrace(false)
+public class EnrollmentEvent extends Event {
+    public static final String ENROLLED = "ENROLLED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String CREDIT_LIMIT = "CREDIT_LIMIT";
+    public static final String FAILED = "FAILED";
+    
+    @Label("Student")
+    private String student;
+    
+    @Label("Course")
+    private String course;
+    
+    @Label("Outcome")
+    private String outcome = ENROLLED;
+    
+    @Label("Validation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long validationTime;
+    
+    // Only worth a clock read while a recording has the event on
+    public long startValidation() {
+        return isEnabled() ? System.nanoTime() : 0;
+    }
+    
+    public void endValidation(long start) {
+        if (start != 0) {
+            validationTime = System.nanoTime() - start;
+        }
+    }
+    
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+    
+    // Names are only looked up when the event is actually committed
+    public void finish(Student s, Course c) {
+        if (shouldCommit()) {
+            this.student = s != null ? s.getRegNo() : null;
+            this.course = c != null ? c.getCode().getCode() : null;
+            commit();
+        }
+    }
+}
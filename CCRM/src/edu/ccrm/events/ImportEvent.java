@@ -0,0 +1,46 @@
+// src/edu/ccrm/events/ImportEvent.java
+package edu.ccrm.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One CSV import, from open to the last row handed to the sink
+@Name("edu.ccrm.Import")
+@Label("CSV Import")
+@Category({ "CCRM", "I/O" })
+@StackTrace(false)
+public class ImportEvent extends Event {
+    @Label("File")
+    private String file;
+    
+    @Label("Rows")
+    private long rows;
+    
+    @Label("Bad Lines")
+    private long errors;
+    
+    @Label("Bytes")
+    @DataAmount(DataAmount.BYTES)
+    private long bytes;
+    
+    @Label("Parallel")
+    @Description("Memory-mapped import parsed on the fork-join pool")
+    private boolean parallel;
+    
+    // Fills in the fields and commits, if a recording wants this event
+    public void finish(String file, long rows, long errors, long bytes, boolean parallel) {
+        if (shouldCommit()) {
+            this.file = file;
+            this.rows = rows;
+            this.errors = errors;
+            this.bytes = bytes;
+            this.parallel = parallel;
+            commit();
+        }
+    }
+}
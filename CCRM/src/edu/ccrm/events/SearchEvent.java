@@ -0,0 +1,33 @@
+// src/edu/ccrm/events/SearchEvent.java
+package edu.ccrm.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One text search against the student or course index
+@Name("edu.ccrm.Search")
+@Label("Search")
+@Category("CCRM")
+@StackTrace(false)
+public class SearchEvent extends Event {
+    @Label("Target")
+    private String target;
+    
+    @Label("Query")
+    private String query;
+    
+    @Label("Results")
+    private int results;
+    
+    public void finish(String target, String query, int results) {
+        if (shouldCommit()) {
+            this.target = target;
+            this.query = query;
+            this.results = results;
+            commit();
+        }
+    }
+}
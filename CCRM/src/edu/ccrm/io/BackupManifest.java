@@ -0,0 +1,172 @@
+// src/edu/ccrm/io/BackupManifest.java
+package edu.ccrm.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// What a backup holds: one line per file with its SHA-256, CRC32C, size,
+// last-modified time and path relative to the data directory.
+// Written last as manifest.txt, so a backup folder without one is unfinished.
+//
+// v2 header: "# ccrm backup manifest v2 mode=DIRECTORY|ARCHIVE stored=<bytes>"
+// where stored is what the backup takes on disk (the zip for archives).
+// Archives don't hash with SHA-256, so that column is "-" there.
+// v1 manifests (no CRC, no mode) are still read.
+public class BackupManifest {
+    public static final String FILE = "manifest.txt";
+    // Archive backups keep everything in this one file next to the manifest
+    public static final String ARCHIVE = "data.zip";
+    private static final String HEADER = "# ccrm backup manifest v";
+    private static final int VERSION = 2;
+    private static final long NO_CRC = -1;
+    
+    public enum Mode { DIRECTORY, ARCHIVE }
+    
+    public static class Entry {
+        private final String path;
+        private final long size;
+        private final long modified;
+        private final String hash;
+        private final long crc;
+        
+        public Entry(String path, long size, long modified, String hash, long crc) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.crc = crc;
+        }
+        
+        public String getPath() { return path; }
+        public long getSize() { return size; }
+        public long getModified() { return modified; }
+        public String getHash() { return hash; }
+        public long getCrc() { return crc; }
+        public boolean hasCrc() { return crc != NO_CRC; }
+    }
+    
+    private Mode mode;
+    private long storedBytes = -1;
+    // Sorted by path so manifests diff cleanly
+    private final Map<String, Entry> entries = new TreeMap<>();
+    
+    public BackupManifest(Mode mode) {
+        this.mode = mode;
+    }
+    
+    public Mode getMode() { return mode; }
+    
+    public void add(Entry e) {
+        entries.put(e.getPath(), e);
+    }
+    
+    public Entry get(String path) {
+        return entries.get(path);
+    }
+    
+    public Collection<Entry> getEntries() {
+        return entries.values();
+    }
+    
+    public long getTotalSize() {
+        return entries.values().stream().mapToLong(Entry::getSize).sum();
+    }
+    
+    // Bytes the backup takes on disk; for directories (and old manifests)
+    // that's the files' total size
+    public long getStoredSize() {
+        return storedBytes >= 0 ? storedBytes : getTotalSize();
+    }
+    
+    void setStoredSize(long bytes) {
+        this.storedBytes = bytes;
+    }
+    
+    // Content hash -> one path holding it
+    public Map<String, String> pathsByHash() {
+        Map<String, String> m = new HashMap<>();
+        for (Entry e : entries.values()) {
+            if (e.getHash() != null) {
+                m.putIfAbsent(e.getHash(), e.getPath());
+            }
+        }
+        return m;
+    }
+    
+    public static boolean exists(Path backupDir) {
+        return Files.isRegularFile(backupDir.resolve(FILE));
+    }
+    
+    public static BackupManifest read(Path backupDir) throws IOException {
+        BackupManifest m = new BackupManifest(Mode.DIRECTORY);
+        int version = 1;
+        try (BufferedReader in = Files.newBufferedReader(backupDir.resolve(FILE), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith(HEADER)) {
+                    version = m.readHeader(line.substring(HEADER.length()));
+                    continue;
+                }
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                
+                // Path goes last so it may contain tabs/spaces
+                int fields = version == 1 ? 4 : 5;
+                String[] parts = line.split("\t", fields);
+                if (parts.length < fields) {
+                    throw new IOException("Bad manifest line in " + backupDir + ": " + line);
+                }
+                if (version == 1) {
+                    m.add(new Entry(parts[3], Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[0], NO_CRC));
+                } else {
+                    String hash = parts[0].equals("-") ? null : parts[0];
+                    long crc = parts[1].equals("-") ? NO_CRC : Long.parseLong(parts[1], 16);
+                    m.add(new Entry(parts[4], Long.parseLong(parts[2]), Long.parseLong(parts[3]), hash, crc));
+                }
+            }
+        }
+        return m;
+    }
+    
+    // "2 mode=ARCHIVE stored=123" -> version, and sets the fields
+    private int readHeader(String rest) throws IOException {
+        String[] words = rest.trim().split(" ");
+        try {
+            int version = Integer.parseInt(words[0]);
+            for (int i = 1; i < words.length; i++) {
+                if (words[i].startsWith("mode=")) {
+                    mode = Mode.valueOf(words[i].substring(5));
+                } else if (words[i].startsWith("stored=")) {
+                    storedBytes = Long.parseLong(words[i].substring(7));
+                }
+            }
+            return version;
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Bad manifest header: " + rest, e);
+        }
+    }
+    
+    // Write to a temp file and move it in, so the manifest appears all at once
+    public void write(Path backupDir) throws IOException {
+        Path tmp = backupDir.resolve(FILE + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            out.write(HEADER + VERSION + " mode=" + mode + " stored=" + getStoredSize());
+            out.newLine();
+            for (Entry e : entries.values()) {
+                out.write((e.getHash() != null ? e.getHash() : "-") + "\t"
+                        + (e.hasCrc() ? Long.toHexString(e.getCrc()) : "-") + "\t"
+                        + e.getSize() + "\t" + e.getModified() + "\t" + e.getPath());
+                out.newLine();
+            }
+        }
+        Files.move(tmp, backupDir.resolve(FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,61 @@
+// src/edu/ccrm/io/BackupReport.java
+package edu.ccrm.io;
+
+// Outcome of a backup: how much was copied vs. linked to an earlier backup.
+// Counters are bumped from the copy threads, hence synchronized.
+public class BackupReport {
+    private final String name;
+    private long copiedFiles;
+    private long copiedBytes;
+    private long linkedFiles;
+    private long linkedBytes;
+    private long nanos;
+    // Archive size, or -1 for directory backups
+    private long storedBytes = -1;
+    
+    public BackupReport(String name) {
+        this.name = name;
+    }
+    
+    synchronized void addCopied(long bytes) {
+        copiedFiles++;
+        copiedBytes += bytes;
+    }
+    
+    synchronized void addLinked(long bytes) {
+        linkedFiles++;
+        linkedBytes += bytes;
+    }
+    
+    void finish(long nanos) {
+        this.nanos = nanos;
+    }
+    
+    void setStoredBytes(long bytes) {
+        this.storedBytes = bytes;
+    }
+    
+    public String getName() { return name; }
+    public synchronized long getCopiedFiles() { return copiedFiles; }
+    public synchronized long getCopiedBytes() { return copiedBytes; }
+    public synchronized long getLinkedFiles() { return linkedFiles; }
+    public synchronized long getLinkedBytes() { return linkedBytes; }
+    public long getElapsedNanos() { return nanos; }
+    public long getStoredBytes() { return storedBytes; }
+    
+    public synchronized long getTotalBytes() {
+        return copiedBytes + linkedBytes;
+    }
+    
+    @Override
+    public synchronized String toString() {
+        if (storedBytes >= 0) {
+            return String.format("%s: %d files archived (%.1f MB -> %.1f MB) in %d ms",
+                    name, copiedFiles, copiedBytes / (1024.0 * 1024.0),
+                    storedBytes / (1024.0 * 1024.0), nanos / 1_000_000);
+        }
+        return String.format("%s: %d files copied (%.1f MB), %d linked (%.1f MB) in %d ms",
+                name, copiedFiles, copiedBytes / (1024.0 * 1024.0),
+                linkedFiles, linkedBytes / (1024.0 * 1024.0), nanos / 1_000_000);
+    }
+}
@@ -0,0 +1,638 @@
+// src/edu/ccrm/io/BinarySnapshot.java
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.EnrollmentStore;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.util.CourseCode;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32C;
+
+// Binary snapshot of instructors, courses, students, enrollments and grades.
+// Only the current VERSION is read; anything else is rejected.
+//
+// Layout (all big-endian):
+//   header   int magic, int version, long coveredLsn,
+//            int #instructors, int #courses, int #students
+//   students [int id][int reg][int name][int email][byte active][long created][int #enrolls]
+//              then per enrollment [int course#][long epochDay][byte grade] ...
+//   strings  [int byteLen][utf-8 bytes] ...   (dictionary, each distinct string once)
+//   instr    [int id][int name][int email][int dept][byte active] ...
+//   courses  [int code][int title][int credits][int instructor#][byte sem][int dept][byte active] ...
+//   index    [long offset] per string, [long offset] per student,
+//            id table and regNo table: [int student# + 1] per slot (0 = empty),
+//            open addressing on String.hashCode, linear probing; regNo only lists active students
+//   sums     [int crc32c] per BLOCK bytes of everything above (the last block may be short)
+//   footer   long strings section, long instr section, long strings table,
+//            long students table, long id table, long regNo table, long sums,
+//            int #strings, int #slots, int #retired, int crc32c, int magic
+// String fields are dictionary indexes; instructor#/course# index the sections
+// above (-1 for none). Nothing is re-parsed or re-validated on load. The index
+// lets MappedSnapshot find single records without reading the rest.
+//
+// Checksums are CRC32C, as in the journal. The footer's covers the block sums
+// and the footer itself; each block sum covers its block. read() checks every
+// block before parsing. MappedSnapshot only checks the sums up front and a
+// block the first time something in it is read, so opening stays cheap.
+//
+// An enrollment keeps the Course object it was made with, which can be an
+// older version than the record now stored under that code (the course was
+// added again since). Those retired versions go after the #courses current
+// ones so the enrollments keep their credits and semester; they aren't loaded
+// as records. They only turn up while the students are written, which is why
+// students come first and the string count is in the footer. Courses point at
+// instructors by id, so a replaced instructor resolves to the current record.
+public class BinarySnapshot {
+    public static final int MAGIC = 0x43435242; // "CCRB"
+    public static final int VERSION = 3;
+    
+    static final int HEADER = 28;
+    static final int FOOTER = 76;
+    static final int TRAILER = 8; // crc + magic, not covered by the crc
+    static final int BLOCK = 1 << 16;
+    static final int STUDENT_FIXED = 29;
+    static final int ENROLL_SIZE = 13;
+    
+    private static final int BUF = 1 << 20;
+    
+    private BinarySnapshot() {
+    }
+    
+    // What read() hands back; records include deactivated ones
+    public static class Loaded {
+        private long coveredLsn;
+        private List<Instructor> instructors;
+        private List<Course> courses;
+        private List<Student> students;
+        private long enrollments;
+        
+        Loaded() {
+        }
+        
+        public long getCoveredLsn() { return coveredLsn; }
+        public List<Instructor> getInstructors() { return instructors; }
+        public List<Course> getCourses() { return courses; }
+        public List<Student> getStudents() { return students; }
+        public long getEnrollmentCount() { return enrollments; }
+    }
+    
+    // Fixed-size header fields
+    static class Header {
+        long coveredLsn;
+        int instructors;
+        int courses;
+        int students;
+    }
+    
+    // Section/table offsets and counts from the footer
+    static class Footer {
+        long strStart;
+        long instrStart;
+        long strTable;
+        long stuTable;
+        long idTable;
+        long regTable;
+        long sumTable;
+        int[] sums;
+        int strings;
+        int slots;
+        int retired;
+    }
+    
+    public static void write(Path file, long coveredLsn, Collection<Instructor> instructors,
+            Collection<Course> courses, Collection<Student> students) throws IOException {
+        // First pass: string dictionary and cross-reference numbers
+        Map<String, Integer> dict = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> instNo = new HashMap<>();
+        Map<Course, Integer> courseNo = new IdentityHashMap<>();
+        List<Course> allCourses = new ArrayList<>(courses);
+        
+        for (Instructor i : instructors) {
+            instNo.put(i.getId(), instNo.size());
+            intern(dict, strings, i.getId(), i.getName(), i.getEmail(), i.getDepartment());
+        }
+        for (Course c : courses) {
+            courseNo.put(c, courseNo.size());
+            intern(dict, strings, c.getCode().toString(), c.getTitle(), c.getDepartment());
+        }
+        for (Student s : students) {
+            intern(dict, strings, s.getId(), s.getRegNo(), s.getName(), s.getEmail());
+        }
+        
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Out out = new Out(ch);
+            out.need(HEADER);
+            out.buf.putInt(MAGIC).putInt(VERSION).putLong(coveredLsn)
+                   .putInt(instructors.size()).putInt(courses.size()).putInt(students.size());
+            
+            int slots = tableSize(students.size());
+            int[] byId = new int[slots];
+            int[] byReg = new int[slots];
+            long[] stuOff = new long[students.size()];
+            int no = 0;
+            for (Student s : students) {
+                stuOff[no] = out.position();
+                insert(byId, s.getId(), no);
+                if (s.isActive()) {
+                    insert(byReg, s.getRegNo(), no);
+                }
+                no++;
+                
+                List<Enrollment> enrolls = s.getEnrollments();
+                out.need(STUDENT_FIXED);
+                out.buf.putInt(ref(dict, s.getId())).putInt(ref(dict, s.getRegNo()))
+                       .putInt(ref(dict, s.getName())).putInt(ref(dict, s.getEmail()))
+                       .put((byte) (s.isActive() ? 1 : 0))
+                       .putLong(s.getDateCreated().toEpochDay())
+                       .putInt(enrolls.size());
+                for (Enrollment e : enrolls) {
+                    Course c = e.getCourse();
+                    Integer cno = courseNo.get(c);
+                    if (cno == null) {
+                        // Retired version, see above
+                        cno = allCourses.size();
+                        courseNo.put(c, cno);
+                        allCourses.add(c);
+                        intern(dict, strings, c.getCode().toString(), c.getTitle(), c.getDepartment());
+                    }
+                    out.need(ENROLL_SIZE);
+                    out.buf.putInt(cno).putLong(e.getEnrollmentDate().toEpochDay())
+                           .put((byte) (e.hasGrade() ? e.getGrade().ordinal() : -1));
+                }
+            }
+            
+            long strStart = out.position();
+            long[] strOff = new long[strings.size()];
+            for (int i = 0; i < strOff.length; i++) {
+                strOff[i] = out.position();
+                out.putString(strings.get(i));
+            }
+            
+            long instrStart = out.position();
+            for (Instructor i : instructors) {
+                out.need(17);
+                out.buf.putInt(ref(dict, i.getId())).putInt(ref(dict, i.getName()))
+                       .putInt(ref(dict, i.getEmail())).putInt(ref(dict, i.getDepartment()))
+                       .put((byte) (i.isActive() ? 1 : 0));
+            }
+            
+            for (Course c : allCourses) {
+                Integer teacher = c.getInstructor() != null ? instNo.get(c.getInstructor().getId()) : null;
+                out.need(22);
+                out.buf.putInt(ref(dict, c.getCode().toString())).putInt(ref(dict, c.getTitle()))
+                       .putInt(c.getCredits()).putInt(teacher != null ? teacher : -1)
+                       .put((byte) (c.getSemester() != null ? c.getSemester().ordinal() : -1))
+                       .putInt(ref(dict, c.getDepartment()))
+                       .put((byte) (c.isActive() ? 1 : 0));
+            }
+            
+            long strTable = out.position();
+            out.putLongs(strOff);
+            long stuTable = out.position();
+            out.putLongs(stuOff);
+            long idTable = out.position();
+            out.putInts(byId);
+            long regTable = out.position();
+            out.putInts(byReg);
+            
+            long sumTable = out.position();
+            int[] sums = out.endBlocks();
+            ByteBuffer tail = ByteBuffer.allocate(sums.length * 4 + FOOTER);
+            for (int v : sums) {
+                tail.putInt(v);
+            }
+            tail.putLong(strStart).putLong(instrStart).putLong(strTable).putLong(stuTable)
+                .putLong(idTable).putLong(regTable).putLong(sumTable)
+                .putInt(strings.size()).putInt(slots).putInt(allCourses.size() - courses.size());
+            CRC32C crc = new CRC32C();
+            crc.update(tail.duplicate().flip());
+            tail.putInt((int) crc.getValue()).putInt(MAGIC).flip();
+            while (tail.hasRemaining()) {
+                ch.write(tail);
+            }
+            ch.force(true);
+        }
+    }
+    
+    // Reads the whole file onto the heap
+    public static Loaded read(Path file) throws IOException {
+        return read(file, EnrollmentStore.getInstance());
+    }
+    
+    // Same, with the students' enrollments going into store
+    public static Loaded read(Path file, EnrollmentStore store) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            In in = new In(ch);
+            Header h = readHeader(in, file);
+            Footer f = readFooter(ch, file);
+            checkBlocks(ch, f, file);
+            
+            // Strings, instructors and courses first; the students need them
+            Loaded l = new Loaded();
+            l.coveredLsn = h.coveredLsn;
+            ch.position(f.strStart);
+            In refs = new In(ch);
+            String[] dict = new String[f.strings];
+            for (int i = 0; i < dict.length; i++) {
+                dict[i] = refs.getString();
+            }
+            IntFunction<String> str = ref -> ref >= 0 ? dict[ref] : null;
+            
+            Instructor[] insts = readInstructors(refs, h.instructors, str);
+            Course[] crs = readCourses(refs, h.courses + f.retired, insts, str);
+            
+            // Dates cluster heavily, so share LocalDate instances
+            ch.position(HEADER);
+            in = new In(ch);
+            Map<Long, LocalDate> dates = new HashMap<>();
+            List<Student> students = new ArrayList<>(h.students);
+            for (int i = 0; i < h.students; i++) {
+                Student s = readStudent(in, str, crs, dates, store);
+                l.enrollments += s.getEnrollmentCount();
+                students.add(s);
+            }
+            
+            l.instructors = List.of(insts);
+            l.courses = List.of(crs).subList(0, h.courses);
+            l.students = students;
+            return l;
+        }
+    }
+    
+    static Header readHeader(In in, Path file) throws IOException {
+        in.need(HEADER);
+        if (in.buf.getInt() != MAGIC) {
+            throw new IOException("Not a CCRM snapshot: " + file);
+        }
+        int version = in.buf.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        Header h = new Header();
+        h.coveredLsn = in.buf.getLong();
+        h.instructors = in.buf.getInt();
+        h.courses = in.buf.getInt();
+        h.students = in.buf.getInt();
+        return h;
+    }
+    
+    static Footer readFooter(FileChannel ch, Path file) throws IOException {
+        long size = ch.size();
+        if (size < HEADER + FOOTER) {
+            throw new EOFException("Snapshot is truncated: " + file);
+        }
+        long sumTable = readAt(ch, size - FOOTER, FOOTER, file).getLong(48);
+        if (sumTable < HEADER || sumTable > size - FOOTER) {
+            throw corrupt(file);
+        }
+        return readFooter(readAt(ch, sumTable, (int) (size - sumTable), file), sumTable, file);
+    }
+    
+    // tail is everything from the block sums to the end of the file
+    static Footer readFooter(ByteBuffer tail, long sumTable, Path file) throws IOException {
+        int end = tail.limit();
+        int blocks = (int) ((sumTable + BLOCK - 1) / BLOCK);
+        if (end - FOOTER != blocks * 4) {
+            throw corrupt(file);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(tail.duplicate().position(0).limit(end - TRAILER));
+        if ((int) crc.getValue() != tail.getInt(end - TRAILER)) {
+            throw corrupt(file);
+        }
+        
+        Footer f = new Footer();
+        f.sums = new int[blocks];
+        for (int i = 0; i < blocks; i++) {
+            f.sums[i] = tail.getInt(i * 4);
+        }
+        ByteBuffer buf = tail.duplicate().position(blocks * 4);
+        f.strStart = buf.getLong();
+        f.instrStart = buf.getLong();
+        f.strTable = buf.getLong();
+        f.stuTable = buf.getLong();
+        f.idTable = buf.getLong();
+        f.regTable = buf.getLong();
+        f.sumTable = buf.getLong();
+        f.strings = buf.getInt();
+        f.slots = buf.getInt();
+        f.retired = buf.getInt();
+        return f;
+    }
+    
+    private static ByteBuffer readAt(FileChannel ch, long pos, int len, Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(len);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, pos + buf.position()) < 0) {
+                throw new EOFException("Snapshot is truncated: " + file);
+            }
+        }
+        return buf.flip();
+    }
+    
+    static Instructor[] readInstructors(In in, int n, IntFunction<String> str) throws IOException {
+        Instructor[] insts = new Instructor[n];
+        for (int i = 0; i < n; i++) {
+            in.need(17);
+            Instructor t = new Instructor(str.apply(in.buf.getInt()), str.apply(in.buf.getInt()),
+                    str.apply(in.buf.getInt()), str.apply(in.buf.getInt()));
+            t.setActive(in.buf.get() != 0);
+            insts[i] = t;
+        }
+        return insts;
+    }
+    
+    static Course[] readCourses(In in, int n, Instructor[] insts, IntFunction<String> str) throws IOException {
+        Semester[] sems = Semester.values();
+        Course[] crs = new Course[n];
+        for (int i = 0; i < n; i++) {
+            in.need(22);
+            String code = str.apply(in.buf.getInt());
+            String title = str.apply(in.buf.getInt());
+            int credits = in.buf.getInt();
+            int teacher = in.buf.getInt();
+            int sem = in.buf.get();
+            String dept = str.apply(in.buf.getInt());
+            boolean active = in.buf.get() != 0;
+            
+            Course c = new Course.Builder()
+                    .setCode(CourseCode.of(code))
+                    .setTitle(title)
+                    .setCredits(credits)
+                    .setInstructor(teacher >= 0 ? insts[teacher] : null)
+                    .setSemester(sem >= 0 ? sems[sem] : null)
+                    .setDepartment(dept)
+                    .build();
+            c.setActive(active);
+            crs[i] = c;
+        }
+        return crs;
+    }
+    
+    // One student record and its enrollments
+    static Student readStudent(In in, IntFunction<String> str, Course[] crs,
+            Map<Long, LocalDate> dates, EnrollmentStore store) throws IOException {
+        in.need(STUDENT_FIXED);
+        Student s = new Student(str.apply(in.buf.getInt()), str.apply(in.buf.getInt()),
+                str.apply(in.buf.getInt()), str.apply(in.buf.getInt()));
+        s.setActive(in.buf.get() != 0);
+        s.setDateCreated(dates.computeIfAbsent(in.buf.getLong(), LocalDate::ofEpochDay));
+        
+        int n = in.buf.getInt();
+        if (n == 0) {
+            return s;
+        }
+        Grade[] grades = Grade.values();
+        List<Enrollment> enrolls = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) {
+            in.need(ENROLL_SIZE);
+            Course c = crs[in.buf.getInt()];
+            Enrollment e = new Enrollment(s, c, dates.computeIfAbsent(in.buf.getLong(), LocalDate::ofEpochDay));
+            int g = in.buf.get();
+            if (g >= 0) {
+                e.setGrade(grades[g]);
+            }
+            enrolls.add(e);
+        }
+        s.setEnrollmentStore(store);
+        s.addEnrollments(enrolls);
+        return s;
+    }
+    
+    // Checks every block against its sum with one sequential pass
+    // (positional reads, so the caller's channel position is left alone)
+    static void checkBlocks(FileChannel ch, Footer f, Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUF);
+        long pos = 0;
+        while (pos < f.sumTable) {
+            buf.clear().limit((int) Math.min(BUF, f.sumTable - pos));
+            while (buf.hasRemaining()) {
+                if (ch.read(buf, pos + buf.position()) < 0) {
+                    throw new EOFException("Snapshot is truncated: " + file);
+                }
+            }
+            buf.flip();
+            // BUF is a multiple of BLOCK, so blocks never straddle reads
+            for (int at = 0; at < buf.limit(); at += BLOCK) {
+                crc.reset();
+                crc.update(buf.duplicate().position(at).limit(Math.min(buf.limit(), at + BLOCK)));
+                if ((int) crc.getValue() != f.sums[(int) ((pos + at) / BLOCK)]) {
+                    throw corrupt(file);
+                }
+            }
+            pos += buf.limit();
+        }
+    }
+    
+    static IOException corrupt(Path file) {
+        return new IOException("Snapshot checksum mismatch, file is corrupt: " + file);
+    }
+    
+    // Power of two, at most half full
+    static int tableSize(int n) {
+        int size = 2;
+        while (size < n * 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+    
+    static int slot(String key, int mask) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+    
+    private static void insert(int[] table, String key, int no) {
+        int mask = table.length - 1;
+        int i = slot(key, mask);
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = no + 1;
+    }
+    
+    private static void intern(Map<String, Integer> dict, List<String> strings, String... values) {
+        for (String v : values) {
+            if (v != null && !dict.containsKey(v)) {
+                dict.put(v, strings.size());
+                strings.add(v);
+            }
+        }
+    }
+    
+    private static int ref(Map<String, Integer> dict, String s) {
+        return s != null ? dict.get(s) : -1;
+    }
+    
+    // Buffered channel writer
+    private static class Out {
+        final FileChannel ch;
+        final ByteBuffer buf = ByteBuffer.allocateDirect(BUF);
+        final CRC32C crc = new CRC32C(); // of the current block
+        long written;
+        int[] sums = new int[64];
+        int blocks;
+        
+        Out(FileChannel ch) {
+            this.ch = ch;
+        }
+        
+        void need(int n) throws IOException {
+            if (buf.remaining() < n) {
+                flush();
+            }
+        }
+        
+        long position() throws IOException {
+            return ch.position() + buf.position();
+        }
+        
+        void putLongs(long[] values) throws IOException {
+            for (long v : values) {
+                need(8);
+                buf.putLong(v);
+            }
+        }
+        
+        void putInts(int[] values) throws IOException {
+            for (int v : values) {
+                need(4);
+                buf.putInt(v);
+            }
+        }
+        
+        void putString(String s) throws IOException {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            need(4);
+            buf.putInt(b.length);
+            if (b.length > buf.remaining()) {
+                flush();
+                if (b.length > buf.capacity()) {
+                    ByteBuffer big = ByteBuffer.wrap(b);
+                    sum(big);
+                    while (big.hasRemaining()) {
+                        ch.write(big);
+                    }
+                    return;
+                }
+            }
+            buf.put(b);
+        }
+        
+        void flush() throws IOException {
+            buf.flip();
+            sum(buf);
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            buf.clear();
+        }
+        
+        // Feeds the block sums; doesn't move data's position
+        private void sum(ByteBuffer data) {
+            ByteBuffer d = data.duplicate();
+            while (d.hasRemaining()) {
+                int n = (int) Math.min(d.remaining(), BLOCK - written % BLOCK);
+                int limit = d.limit();
+                crc.update(d.limit(d.position() + n));
+                d.limit(limit);
+                written += n;
+                if (written % BLOCK == 0) {
+                    endBlock();
+                }
+            }
+        }
+        
+        private void endBlock() {
+            if (blocks == sums.length) {
+                sums = Arrays.copyOf(sums, blocks * 2);
+            }
+            sums[blocks++] = (int) crc.getValue();
+            crc.reset();
+        }
+        
+        // Flushes and closes the last, short block; nothing after is summed
+        int[] endBlocks() throws IOException {
+            flush();
+            if (written % BLOCK != 0) {
+                endBlock();
+            }
+            return Arrays.copyOf(sums, blocks);
+        }
+    }
+    
+    // Buffered channel reader; need(n) guarantees n bytes are in buf.
+    // Can also walk a buffer that already holds everything (ch == null).
+    static class In {
+        final FileChannel ch;
+        ByteBuffer buf;
+        
+        In(FileChannel ch) throws IOException {
+            this.ch = ch;
+            this.buf = ByteBuffer.allocate(BUF);
+            buf.flip(); // start empty
+        }
+        
+        In(ByteBuffer whole) {
+            this.ch = null;
+            this.buf = whole;
+        }
+        
+        void need(int n) throws IOException {
+            if (buf.remaining() >= n) return;
+            if (ch == null) {
+                throw new EOFException("Snapshot is truncated");
+            }
+            if (n > buf.capacity()) {
+                ByteBuffer bigger = ByteBuffer.allocate(n);
+                bigger.put(buf);
+                buf = bigger;
+            } else {
+                buf.compact();
+            }
+            while (buf.position() < n) {
+                if (ch.read(buf) < 0) {
+                    throw new EOFException("Snapshot is truncated");
+                }
+            }
+            buf.flip();
+        }
+        
+        String getString() throws IOException {
+            need(4);
+            int len = buf.getInt();
+            need(len);
+            if (!buf.hasArray()) {
+                byte[] b = new byte[len];
+                buf.get(b);
+                return new String(b, StandardCharsets.UTF_8);
+            }
+            String s = new String(buf.array(), buf.arrayOffset() + buf.position(), len, StandardCharsets.UTF_8);
+            buf.position(buf.position() + len);
+            return s;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+// src/edu/ccrm/io/ChunkedCsvReader.java
+package edu.ccrm.io;
+
+import edu.ccrm.exception.FileImportException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Parallel CSV parsing over a memory-mapped file.
+// The file is cut into chunks on newline boundaries, every chunk is parsed
+// on the fork-join pool, and results are handed to the sink in file order.
+class ChunkedCsvReader {
+    static final int DEFAULT_CHUNK = 8 * 1024 * 1024;
+    
+    private final Path path;
+    private final String header;
+    private final int chunkSize;
+    
+    ChunkedCsvReader(Path path, String header, int chunkSize) {
+        this.path = path;
+        this.header = header;
+        this.chunkSize = chunkSize;
+    }
+    
+    <T> void read(ForkJoinPool pool, Function<String, T> parser, Consumer<T> sink, 
+            boolean failFast, ImportReport report) throws IOException, FileImportException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<long[]> bounds = split(ch);
+            
+            // Only keep a window of chunks in flight so parsed rows don't pile up
+            int window = pool.getParallelism() * 2;
+            List<ChunkTask<T>> tasks = new ArrayList<>();
+            
+            // Join in order so the sink sees rows exactly as they appear in the file;
+            // later chunks keep parsing while we drain earlier ones
+            long linesBefore = 0;
+            for (int i = 0; i < bounds.size(); i++) {
+                while (tasks.size() < bounds.size() && tasks.size() <= i + window) {
+                    int k = tasks.size();
+                    long[] b = bounds.get(k);
+                    ChunkTask<T> t = new ChunkTask<>(ch, b[0], b[1], k == 0 ? header : null, parser);
+                    tasks.add(t);
+                    pool.execute(t);
+                }
+                
+                Chunk<T> c = tasks.get(i).join();
+                tasks.set(i, null);
+                
+                if (c.ioError != null) {
+                    throw c.ioError;
+                }
+                // Parse errors and rows in line order; the sink can reject a row too
+                int e = 0;
+                for (int k = 0; k < c.items.size(); k++) {
+                    int line = c.itemLines.get(k);
+                    for (; e < c.errLines.size() && c.errLines.get(e) < line; e++) {
+                        lineError(linesBefore + c.errLines.get(e), c.errMsgs.get(e), failFast, report);
+                    }
+                    try {
+                        sink.accept(c.items.get(k));
+                        report.addRow();
+                    } catch (RuntimeException ex) {
+                        lineError(linesBefore + line, ex.getMessage(), failFast, report);
+                    }
+                }
+                for (; e < c.errLines.size(); e++) {
+                    lineError(linesBefore + c.errLines.get(e), c.errMsgs.get(e), failFast, report);
+                }
+                linesBefore += c.lines;
+            }
+        }
+    }
+    
+    private static void lineError(long lineNo, String msg, boolean failFast, ImportReport report)
+            throws FileImportException {
+        if (failFast) {
+            throw new FileImportException("Bad line " + lineNo + ": " + msg);
+        }
+        report.addError(lineNo, msg);
+    }
+    
+    // Chunk boundaries as [start, end) pairs, each ending right after a '\n'
+    private List<long[]> split(FileChannel ch) throws IOException {
+        long size = ch.size();
+        List<long[]> out = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + chunkSize);
+            // Walk forward to the next newline
+            while (end < size) {
+                probe.clear();
+                int n = ch.read(probe, end);
+                if (n <= 0) {
+                    end = size;
+                    break;
+                }
+                int nl = -1;
+                for (int i = 0; i < n; i++) {
+                    if (probe.get(i) == '\n') {
+                        nl = i;
+                        break;
+                    }
+                }
+                if (nl >= 0) {
+                    end += nl + 1;
+                    break;
+                }
+                end += n;
+            }
+            out.add(new long[] { start, end });
+            start = end;
+        }
+        return out;
+    }
+    
+    private static class Chunk<T> {
+        final List<T> items = new ArrayList<>();
+        final List<Integer> itemLines = new ArrayList<>();
+        final List<Integer> errLines = new ArrayList<>();
+        final List<String> errMsgs = new ArrayList<>();
+        int lines;
+        IOException ioError;
+    }
+    
+    private static class ChunkTask<T> extends RecursiveTask<Chunk<T>> {
+        private static final long serialVersionUID = 1L;
+        
+        private final FileChannel ch;
+        private final long start;
+        private final long end;
+        private final String header;
+        private final Function<String, T> parser;
+        
+        ChunkTask(FileChannel ch, long start, long end, String header, Function<String, T> parser) {
+            this.ch = ch;
+            this.start = start;
+            this.end = end;
+            this.header = header;
+            this.parser = parser;
+        }
+        
+        @Override
+        protected Chunk<T> compute() {
+            Chunk<T> out = new Chunk<>();
+            MappedByteBuffer map;
+            try {
+                map = ch.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                out.ioError = e;
+                return out;
+            }
+            
+            // Newlines are found in the mapping itself; only each line's bytes
+            // are copied out, into one reused array, to make its String
+            int size = map.limit();
+            byte[] buf = new byte[256];
+            int pos = 0;
+            while (pos < size) {
+                int nl = pos;
+                while (nl < size && map.get(nl) != '\n') nl++;
+                int len = nl - pos;
+                if (len > 0 && map.get(pos + len - 1) == '\r') len--;
+                
+                out.lines++;
+                if (len > buf.length) {
+                    buf = new byte[Math.max(len, buf.length * 2)];
+                }
+                map.get(pos, buf, 0, len);
+                String line = new String(buf, 0, len, StandardCharsets.UTF_8);
+                pos = nl + 1;
+                
+                if (line.trim().isEmpty()) continue;
+                if (out.lines == 1 && header != null && line.startsWith(header)) continue;
+                
+                try {
+                    out.items.add(parser.apply(line));
+                    out.itemLines.add(out.lines);
+                } catch (Exception e) {
+                    out.errLines.add(out.lines);
+                    out.errMsgs.add(e.getMessage());
+                }
+            }
+            return out;
+        }
+    }
+}
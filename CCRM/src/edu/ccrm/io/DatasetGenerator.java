@@ -0,0 +1,518 @@
+// src/edu/ccrm/io/DatasetGenerator.java
+package edu.ccrm.io;
+
+import edu.ccrm.service.StudentService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Synthetic data for load tests: instructors.csv, courses.csv, students.csv
+// and enrollments.csv (regNo,courseCode,grade) in the formats FileService reads.
+// Same seed and size -> byte-identical files, whatever the thread count.
+//
+// Course popularity is Zipf-skewed within each semester, and every student gets
+// a per-semester credit target (full-time, part-time, optional summer) that
+// never goes over StudentService.MAX_CREDITS.
+//
+// Students are generated in blocks on the fork-join pool, each block from its
+// own seeded random, straight into byte buffers that are written in order.
+public class DatasetGenerator {
+    public static final String INSTRUCTORS = "instructors.csv";
+    public static final String COURSES = "courses.csv";
+    public static final String STUDENTS = "students.csv";
+    public static final String ENROLLMENTS = "enrollments.csv";
+    
+    private static final int BLOCK = 16 * 1024; // students per task
+    private static final double ZIPF_S = 0.9;
+    
+    private static final String[][] DEPTS = {
+        { "CSE", "Computer Science", "Programming", "Data Structures", "Algorithms", "Operating Systems", "Databases" },
+        { "MTH", "Mathematics", "Calculus", "Linear Algebra", "Probability", "Number Theory", "Topology" },
+        { "PHY", "Physics", "Mechanics", "Electromagnetism", "Optics", "Quantum Physics", "Thermodynamics" },
+        { "CHM", "Chemistry", "Organic Chemistry", "Inorganic Chemistry", "Spectroscopy", "Kinetics", "Polymers" },
+        { "ECE", "Electronics", "Circuits", "Signals and Systems", "Digital Logic", "Embedded Systems", "VLSI Design" },
+        { "MEC", "Mechanical Engineering", "Statics", "Fluid Mechanics", "Machine Design", "Heat Transfer", "Robotics" },
+        { "CIV", "Civil Engineering", "Surveying", "Structural Analysis", "Geotechnics", "Hydraulics", "Transportation" },
+        { "BIO", "Biology", "Cell Biology", "Genetics", "Ecology", "Microbiology", "Biochemistry" },
+        { "ECO", "Economics", "Microeconomics", "Macroeconomics", "Econometrics", "Game Theory", "Public Finance" },
+        { "HUM", "Humanities", "Technical Writing", "Philosophy", "World History", "Ethics", "Psychology" },
+        { "MGT", "Management", "Accounting", "Marketing", "Operations", "Finance", "Entrepreneurship" },
+        { "STA", "Statistics", "Inference", "Regression", "Sampling", "Time Series", "Bayesian Methods" },
+    };
+    private static final String[] LEVELS = { "Introduction to ", "Foundations of ", "Topics in ", "Advanced ", "Seminar in " };
+    private static final String[] FIRST = {
+        "Aarav", "Aditi", "Akash", "Ananya", "Arjun", "Bhavna", "Chetan", "Deepa", "Dev", "Diya",
+        "Farhan", "Gauri", "Harsh", "Isha", "Ishaan", "Jaya", "Karan", "Kavya", "Lakshmi", "Manav",
+        "Meera", "Mohan", "Naina", "Neha", "Nikhil", "Omkar", "Pooja", "Pranav", "Priya", "Rahul",
+        "Riya", "Rohan", "Sahil", "Saanvi", "Sanjay", "Shreya", "Siddharth", "Sneha", "Tanvi", "Tara",
+        "Uday", "Varun", "Vikram", "Yash", "Zara", "John", "Jane", "Maria", "David", "Sarah"
+    };
+    private static final String[] LAST = {
+        "Sharma", "Verma", "Iyer", "Reddy", "Nair", "Gupta", "Menon", "Rao", "Kapoor", "Bose",
+        "Das", "Joshi", "Pillai", "Mehta", "Singh", "Chopra", "Desai", "Kulkarni", "Banerjee", "Patel",
+        "Shah", "Jain", "Agarwal", "Mishra", "Pandey", "Saxena", "Bhat", "Hegde", "Kumar", "Chatterjee",
+        "Sen", "Ghosh", "Mukherjee", "Thomas", "George", "Fernandes", "Khan", "Ali", "Smith", "Doe"
+    };
+    // Grade letters with cumulative weights (percent): S A B C D E F
+    private static final String[] GRADES = { "S", "A", "B", "C", "D", "E", "F" };
+    private static final int[] GRADE_CUM = { 8, 28, 55, 75, 87, 94, 100 };
+    // Same order as Semester.values()
+    private static final String[] SEMESTERS = { "SPRING", "SUMMER", "FALL" };
+    private static final int[] COHORTS = { 2021, 2022, 2023, 2024, 2025 };
+    
+    private static final byte[][] FIRST_B = bytes(FIRST);
+    private static final byte[][] LAST_B = bytes(LAST);
+    private static final byte[][] FIRST_LOWER = lower(FIRST);
+    private static final byte[][] LAST_LOWER = lower(LAST);
+    private static final byte[][] GRADES_B = bytes(GRADES);
+    private static final byte[] DOMAIN = "@university.edu,".getBytes(StandardCharsets.US_ASCII);
+    
+    private final long seed;
+    private final long students;
+    private final int courseCount;
+    private final int instructorCount;
+    
+    // Built by writeCourses, read by the student blocks
+    private byte[][] courseCodes;
+    private int[] courseCredits;
+    private int[][] semCourses;     // semester ordinal -> active course numbers, most popular first
+    // Alias tables over semCourses for O(1) Zipf draws
+    private double[][] semProb;
+    private int[][] semAlias;
+    
+    public DatasetGenerator(long seed, long students) {
+        if (students < 1) {
+            throw new IllegalArgumentException("Need at least one student");
+        }
+        this.seed = seed;
+        this.students = students;
+        // About one course per 150 students, within what CourseCode can name
+        this.courseCount = (int) Math.max(40, Math.min(100_000, students / 150));
+        this.instructorCount = Math.max(DEPTS.length, courseCount / 3);
+    }
+    
+    public long getStudents() { return students; }
+    public int getCourseCount() { return courseCount; }
+    public int getInstructorCount() { return instructorCount; }
+    
+    public DatasetReport generate(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        DatasetReport report = new DatasetReport(dir);
+        long start = System.nanoTime();
+        
+        SplittableRandom rnd = new SplittableRandom(seed);
+        report.addInstructors(instructorCount, writeInstructors(dir.resolve(INSTRUCTORS), rnd.split()));
+        report.addCourses(courseCount, writeCourses(dir.resolve(COURSES), rnd.split()));
+        writeStudents(dir, report);
+        
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+    
+    private long writeInstructors(Path file, SplittableRandom rnd) throws IOException {
+        Buf b = new Buf(64 * 1024);
+        b.put("id,fullName,email,department\n");
+        int width = Math.max(3, digits(instructorCount));
+        try (FileChannel out = create(file)) {
+            for (int i = 0; i < instructorCount; i++) {
+                int f = rnd.nextInt(FIRST.length);
+                int l = rnd.nextInt(LAST.length);
+                b.put('I').pad(i + 1, width).put(',');
+                b.put(FIRST_B[f]).put(' ').put(LAST_B[l]).put(',');
+                b.put(FIRST_LOWER[f]).put('.').put(LAST_LOWER[l]).num(i + 1).put(DOMAIN);
+                b.put(DEPTS[i % DEPTS.length][1]).put('\n');
+                b.flushIfFull(out);
+            }
+            b.flush(out);
+            return out.size();
+        }
+    }
+    
+    private long writeCourses(Path file, SplittableRandom rnd) throws IOException {
+        courseCodes = new byte[courseCount][];
+        courseCredits = new int[courseCount];
+        int[] sem = new int[courseCount];
+        boolean[] active = new boolean[courseCount];
+        int perDept = (instructorCount + DEPTS.length - 1) / DEPTS.length;
+        int iWidth = Math.max(3, digits(instructorCount));
+        
+        Buf b = new Buf(64 * 1024);
+        b.put("code,title,credits,instructorId,semester,department,active\n");
+        try (FileChannel out = create(file)) {
+            for (int i = 0; i < courseCount; i++) {
+                int d = i % DEPTS.length;
+                int k = i / DEPTS.length;
+                int number = 100 + k % 900;
+                courseCodes[i] = code(d, k / 900, number);
+                
+                // 2-5 credits, mostly 3-4
+                int r = rnd.nextInt(100);
+                courseCredits[i] = r < 10 ? 2 : r < 60 ? 3 : r < 95 ? 4 : 5;
+                // Spring and Fall carry most of the catalogue
+                r = rnd.nextInt(100);
+                sem[i] = r < 45 ? 2 : r < 85 ? 0 : 1;
+                active[i] = rnd.nextInt(100) < 98;
+                
+                b.put(courseCodes[i]).put(',');
+                b.put(LEVELS[Math.min(number / 100 - 1, LEVELS.length - 1)]).put(DEPTS[d][2 + rnd.nextInt(5)]);
+                if (k >= 5) {
+                    b.put(' ').num(k / 5 + 1);
+                }
+                b.put(',').num(courseCredits[i]).put(',');
+                // A few courses have no instructor yet
+                if (rnd.nextInt(100) >= 3) {
+                    int inst = d + DEPTS.length * rnd.nextInt(perDept);
+                    if (inst >= instructorCount) inst = d;
+                    b.put('I').pad(inst + 1, iWidth);
+                }
+                b.put(',').put(SEMESTERS[sem[i]]).put(',').put(DEPTS[d][1]).put(',');
+                b.put(active[i] ? "true" : "false").put('\n');
+                b.flushIfFull(out);
+            }
+            b.flush(out);
+            buildPopularity(sem, active, rnd);
+            return out.size();
+        }
+    }
+    
+    // Shuffle each semester's active courses and give the i-th one weight 1/(i+1)^s
+    private void buildPopularity(int[] sem, boolean[] active, SplittableRandom rnd) {
+        semCourses = new int[SEMESTERS.length][];
+        semProb = new double[SEMESTERS.length][];
+        semAlias = new int[SEMESTERS.length][];
+        for (int s = 0; s < SEMESTERS.length; s++) {
+            int[] list = new int[courseCount];
+            int n = 0;
+            for (int i = 0; i < courseCount; i++) {
+                if (sem[i] == s && active[i]) list[n++] = i;
+            }
+            list = Arrays.copyOf(list, n);
+            for (int i = n - 1; i > 0; i--) {
+                int j = rnd.nextInt(i + 1);
+                int t = list[i];
+                list[i] = list[j];
+                list[j] = t;
+            }
+            double[] w = new double[n];
+            for (int i = 0; i < n; i++) {
+                w[i] = 1.0 / Math.pow(i + 1, ZIPF_S);
+            }
+            semCourses[s] = list;
+            semProb[s] = new double[n];
+            semAlias[s] = new int[n];
+            buildAlias(w, semProb[s], semAlias[s]);
+        }
+    }
+    
+    // Vose's alias method: slot i keeps prob[i] of its own weight, the rest goes to alias[i]
+    private static void buildAlias(double[] w, double[] prob, int[] alias) {
+        int n = w.length;
+        double sum = 0;
+        for (double x : w) sum += x;
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int ns = 0;
+        int nl = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = w[i] * n / sum;
+            if (scaled[i] < 1.0) small[ns++] = i;
+            else large[nl++] = i;
+        }
+        while (ns > 0 && nl > 0) {
+            int lo = small[--ns];
+            int hi = large[--nl];
+            prob[lo] = scaled[lo];
+            alias[lo] = hi;
+            scaled[hi] -= 1.0 - scaled[lo];
+            if (scaled[hi] < 1.0) small[ns++] = hi;
+            else large[nl++] = hi;
+        }
+        // Leftovers are 1 up to rounding
+        while (nl > 0) prob[large[--nl]] = 1.0;
+        while (ns > 0) prob[small[--ns]] = 1.0;
+    }
+    
+    private void writeStudents(Path dir, DatasetReport report) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long blocks = (students + BLOCK - 1) / BLOCK;
+        int window = pool.getParallelism() * 2;
+        int width = Math.max(3, digits(students));
+        
+        try (FileChannel stuOut = create(dir.resolve(STUDENTS));
+             FileChannel enrOut = create(dir.resolve(ENROLLMENTS))) {
+            stuOut.write(ByteBuffer.wrap("id,regNo,fullName,email,active,dateCreated\n".getBytes(StandardCharsets.US_ASCII)));
+            enrOut.write(ByteBuffer.wrap("regNo,courseCode,grade\n".getBytes(StandardCharsets.US_ASCII)));
+            
+            // Keep a window of blocks in flight and write them in order
+            List<BlockTask> tasks = new ArrayList<>();
+            for (long i = 0; i < blocks; i++) {
+                while (tasks.size() < blocks && tasks.size() <= i + window) {
+                    long first = (long) tasks.size() * BLOCK;
+                    BlockTask t = new BlockTask(tasks.size(), first, Math.min(students, first + BLOCK), width);
+                    tasks.add(t);
+                    pool.execute(t);
+                }
+                BlockTask t = tasks.get((int) i);
+                Block done = t.join();
+                tasks.set((int) i, null);
+                done.students.flush(stuOut);
+                done.enrollments.flush(enrOut);
+                report.addStudents(done.studentRows, done.enrollmentRows);
+            }
+            report.addBytes(stuOut.size() + enrOut.size());
+        }
+    }
+    
+    private static final class Block {
+        Buf students;
+        Buf enrollments;
+        long studentRows;
+        long enrollmentRows;
+    }
+    
+    private final class BlockTask extends RecursiveTask<Block> {
+        private static final long serialVersionUID = 1L;
+        
+        private final long index;
+        private final long first;
+        private final long end;
+        private final int width;
+        
+        BlockTask(long index, long first, long end, int width) {
+            this.index = index;
+            this.first = first;
+            this.end = end;
+            this.width = width;
+        }
+        
+        @Override
+        protected Block compute() {
+            // Seeded per block, so output doesn't depend on scheduling
+            SplittableRandom rnd = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+            int n = (int) (end - first);
+            Block blk = new Block();
+            // Sized for the average row so they rarely have to grow
+            blk.students = new Buf(n * 96);
+            blk.enrollments = new Buf(n * 288);
+            int[] picked = new int[16];
+            
+            for (long i = first; i < end; i++) {
+                int f = rnd.nextInt(FIRST.length);
+                int l = rnd.nextInt(LAST.length);
+                int cohort = COHORTS[rnd.nextInt(COHORTS.length)];
+                
+                Buf s = blk.students;
+                s.put('S').pad(i + 1, width).put(',');
+                int regStart = s.n;
+                s.put("REG").num(cohort).pad(i + 1, width);
+                int regEnd = s.n;
+                s.put(',').put(FIRST_B[f]).put(' ').put(LAST_B[l]).put(',');
+                s.put(FIRST_LOWER[f]).put('.').put(LAST_LOWER[l]).num(i + 1).put(DOMAIN);
+                boolean active = rnd.nextInt(100) < 96;
+                s.put(active ? "true," : "false,");
+                s.num(cohort).put("-08-").pad(1 + rnd.nextInt(28), 2).put('\n');
+                blk.studentRows++;
+                
+                // Deactivated students have left; they hold no enrollments
+                if (active) {
+                    blk.enrollmentRows += enroll(rnd, s.a, regStart, regEnd, blk.enrollments, picked);
+                }
+            }
+            return blk;
+        }
+    }
+    
+    // One student's enrollments, semester by semester
+    private long enroll(SplittableRandom rnd, byte[] reg, int regStart, int regEnd, Buf out, int[] picked) {
+        long rows = 0;
+        for (int s = 0; s < SEMESTERS.length; s++) {
+            int target = creditTarget(rnd, s);
+            int[] list = semCourses[s];
+            if (target == 0 || list.length == 0) continue;
+            
+            int credits = 0;
+            int count = 0;
+            // Give up after a few misses (duplicates, or nothing small enough left)
+            for (int tries = 0; credits < target && tries < 16 && count < picked.length; tries++) {
+                int c = list[pick(semProb[s], semAlias[s], rnd)];
+                if (credits + courseCredits[c] > StudentService.MAX_CREDITS || contains(picked, count, c)) {
+                    continue;
+                }
+                picked[count++] = c;
+                credits += courseCredits[c];
+                
+                out.put(reg, regStart, regEnd).put(',').put(courseCodes[c]).put(',');
+                // Some enrollments aren't graded yet
+                int g = rnd.nextInt(100);
+                if (g < 88) {
+                    out.put(GRADES_B[grade(rnd.nextInt(100))]);
+                }
+                out.put('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+    
+    // Spring/Fall: mostly full-time 15-18, some part-time 6-12; summer is optional and light
+    private static int creditTarget(SplittableRandom rnd, int sem) {
+        if (sem == 1) {
+            return rnd.nextInt(100) < 40 ? 3 + rnd.nextInt(7) : 0;
+        }
+        return rnd.nextInt(100) < 85 ? 15 + rnd.nextInt(4) : 6 + rnd.nextInt(7);
+    }
+    
+    private static int grade(int pct) {
+        int g = 0;
+        while (pct >= GRADE_CUM[g]) g++;
+        return g;
+    }
+    
+    private static int pick(double[] prob, int[] alias, SplittableRandom rnd) {
+        int i = rnd.nextInt(prob.length);
+        return rnd.nextDouble() < prob[i] ? i : alias[i];
+    }
+    
+    private static boolean contains(int[] a, int n, int v) {
+        for (int i = 0; i < n; i++) {
+            if (a[i] == v) return true;
+        }
+        return false;
+    }
+    
+    // Department prefix for the first 900 codes, then XAA, XAB, ... so it never
+    // clashes with a real department
+    private static byte[] code(int dept, int block, int number) {
+        String prefix;
+        if (block == 0) {
+            prefix = DEPTS[dept][0];
+        } else {
+            int q = (block - 1) * DEPTS.length + dept;
+            prefix = "" + (char) ('X' + q / 676) + (char) ('A' + q / 26 % 26) + (char) ('A' + q % 26);
+        }
+        return (prefix + "-" + number).getBytes(StandardCharsets.US_ASCII);
+    }
+    
+    private static FileChannel create(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+    
+    private static int digits(long n) {
+        return Long.toString(n).length();
+    }
+    
+    private static byte[][] bytes(String[] words) {
+        byte[][] out = new byte[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            out[i] = words[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return out;
+    }
+    
+    private static byte[][] lower(String[] words) {
+        byte[][] out = new byte[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            out[i] = words[i].toLowerCase().getBytes(StandardCharsets.US_ASCII);
+        }
+        return out;
+    }
+    
+    // Growable ASCII line buffer; all output is plain ASCII so no encoder needed
+    private static final class Buf {
+        private static final int FLUSH_AT = 1 << 20;
+        
+        byte[] a;
+        int n;
+        
+        Buf(int capacity) {
+            a = new byte[Math.max(capacity, 256)];
+        }
+        
+        private void room(int more) {
+            if (n + more > a.length) {
+                a = Arrays.copyOf(a, Math.max(a.length * 2, n + more));
+            }
+        }
+        
+        Buf put(char c) {
+            room(1);
+            a[n++] = (byte) c;
+            return this;
+        }
+        
+        Buf put(byte[] b) {
+            return put(b, 0, b.length);
+        }
+        
+        Buf put(byte[] b, int from, int to) {
+            room(to - from);
+            System.arraycopy(b, from, a, n, to - from);
+            n += to - from;
+            return this;
+        }
+        
+        Buf put(String s) {
+            room(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                a[n++] = (byte) s.charAt(i);
+            }
+            return this;
+        }
+        
+        Buf num(long v) {
+            return pad(v, 1);
+        }
+        
+        // Decimal, zero-padded to at least width digits
+        Buf pad(long v, int width) {
+            int len = 1;
+            for (long x = v; x >= 10; x /= 10) len++;
+            len = Math.max(width, len);
+            room(len);
+            for (int i = n + len - 1; i >= n; i--) {
+                a[i] = (byte) ('0' + v % 10);
+                v /= 10;
+            }
+            n += len;
+            return this;
+        }
+        
+        void flushIfFull(FileChannel out) throws IOException {
+            if (n >= FLUSH_AT) flush(out);
+        }
+        
+        void flush(FileChannel out) throws IOException {
+            ByteBuffer bb = ByteBuffer.wrap(a, 0, n);
+            while (bb.hasRemaining()) {
+                out.write(bb);
+            }
+            n = 0;
+        }
+    }
+    
+    // java edu.ccrm.io.DatasetGenerator <students> [seed] [dir]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: DatasetGenerator <students> [seed] [dir]");
+            System.exit(2);
+        }
+        long n = Long.parseLong(args[0].replace("_", ""));
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        Path dir = Paths.get(args.length > 2 ? args[2] : "generated");
+        System.out.println(new DatasetGenerator(seed, n).generate(dir));
+    }
+}
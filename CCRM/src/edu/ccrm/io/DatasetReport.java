@@ -0,0 +1,61 @@
+// src/edu/ccrm/io/DatasetReport.java
+package edu.ccrm.io;
+
+import java.nio.file.Path;
+
+// What DatasetGenerator wrote, and how fast
+public class DatasetReport {
+    private final Path dir;
+    private long instructors;
+    private long courses;
+    private long students;
+    private long enrollments;
+    private long bytes;
+    private long nanos;
+    
+    public DatasetReport(Path dir) {
+        this.dir = dir;
+    }
+    
+    void addInstructors(long rows, long fileBytes) {
+        instructors += rows;
+        bytes += fileBytes;
+    }
+    
+    void addCourses(long rows, long fileBytes) {
+        courses += rows;
+        bytes += fileBytes;
+    }
+    
+    void addStudents(long rows, long enrollmentRows) {
+        students += rows;
+        enrollments += enrollmentRows;
+    }
+    
+    void addBytes(long fileBytes) {
+        bytes += fileBytes;
+    }
+    
+    void finish(long nanos) {
+        this.nanos = nanos;
+    }
+    
+    public Path getDirectory() { return dir; }
+    public long getInstructors() { return instructors; }
+    public long getCourses() { return courses; }
+    public long getStudents() { return students; }
+    public long getEnrollments() { return enrollments; }
+    public long getBytes() { return bytes; }
+    public long getElapsedNanos() { return nanos; }
+    
+    public double getMBPerSec() {
+        return nanos > 0 ? (bytes / (1024.0 * 1024.0)) * 1e9 / nanos : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %d students, %d enrollments, %d courses, %d instructors (%.1f MB) in %d ms (%.1f MB/s)",
+                dir, students, enrollments, courses, instructors, bytes / (1024.0 * 1024.0),
+                nanos / 1_000_000, getMBPerSec());
+    }
+}
@@ -8,90 +8,293 @@ import edu.ccrm.domain.Instructor;
 import edu.ccrm.domain.Semester;
 import edu.ccrm.domain.Grade;
 import edu.ccrm.util.CourseCode;
+import edu.ccrm.events.BackupEvent;
+import edu.ccrm.events.ImportEvent;
 import edu.ccrm.exception.FileImportException;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import edu.ccrm.service.EnrollRequest;
+import edu.ccrm.service.InstructorService;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 import java.util.stream.Stream;
 
 public class FileService {
+    private static final String STUDENT_HEADER = "id,";
+    private static final String COURSE_HEADER = "code,";
+    private static final String ENROLL_HEADER = "regNo,";
+    private static final String INSTRUCTOR_HEADER = "id,";
+    
+    // Backups are disk-bound, so a few threads are plenty
+    private static final int COPY_THREADS = Math.min(8, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int COPY_BUFFER = 1 << 20;
+    
+    // Per-operation timings; the list overloads of the imports count under
+    // the streaming ones they call
+    private static final OperationMetrics EXPORT_STUDENTS = op("exportStudents");
+    private static final OperationMetrics IMPORT_STUDENTS = op("importStudents");
+    private static final OperationMetrics IMPORT_STUDENTS_PARALLEL = op("importStudentsParallel");
+    private static final OperationMetrics EXPORT_COURSES = op("exportCourses");
+    private static final OperationMetrics IMPORT_COURSES = op("importCourses");
+    private static final OperationMetrics IMPORT_COURSES_PARALLEL = op("importCoursesParallel");
+    private static final OperationMetrics IMPORT_INSTRUCTORS = op("importInstructors");
+    private static final OperationMetrics IMPORT_ENROLL_REQUESTS = op("importEnrollRequests");
+    private static final OperationMetrics BACKUP = op("backupData");
+    private static final OperationMetrics BACKUP_ARCHIVE = op("backupArchive");
+    private static final OperationMetrics RESTORE = op("restoreBackup");
+    private static final OperationMetrics BACKUP_SIZE = op("getBackupSize");
+    private static final OperationMetrics FILE_EXISTS = op("fileExists");
+    private static final OperationMetrics LIST_BACKUPS = op("getBackups");
+    
     private final AppConfig cfg;
     
     public FileService() {
         this.cfg = AppConfig.getInstance();
     }
     
+    private static OperationMetrics op(String name) {
+        return MetricsRegistry.getInstance().operation("FileService", name);
+    }
+    
     public void exportStudents(List<Student> students, String filename) throws IOException {
-        Path path = cfg.getDataDirectory().resolve(filename);
-        List<String> lines = students.stream()
-                .map(this::studentToCSV)
-                .collect(Collectors.toList());
-        
-        Files.write(path, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        long t = EXPORT_STUDENTS.start();
+        try {
+            Path path = cfg.getDataDirectory().resolve(filename);
+            List<String> lines = students.stream()
+                    .map(this::studentToCSV)
+                    .collect(Collectors.toList());
+            
+            Files.write(path, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (Exception e) {
+            EXPORT_STUDENTS.failed();
+            throw e;
+        } finally {
+            EXPORT_STUDENTS.stop(t);
+        }
     }
     
     public List<Student> importStudents(String filename) throws IOException, FileImportException {
-        Path path = cfg.getDataDirectory().resolve(filename);
-        if (!Files.exists(path)) {
-            throw new FileImportException("File not found: " + filename);
-        }
-        
         List<Student> result = new ArrayList<>();
-        List<String> lines = Files.readAllLines(path);
-        
-        for (int i = 0; i < lines.size(); i++) {
-            try {
-                String line = lines.get(i);
-                if (line.trim().isEmpty()) continue;
-                
-                Student s = studentFromCSV(line);
-                result.add(s);
-            } catch (Exception e) {
-                throw new FileImportException("Bad line " + (i + 1) + ": " + e.getMessage());
-            }
-        }
-        
+        importStudents(filename, result::add, true);
         return result;
     }
     
+    // Streaming import: rows go straight to the sink, nothing is buffered.
+    // With failFast off, bad lines are recorded in the report and skipped.
+    public ImportReport importStudents(String filename, Consumer<Student> sink, boolean failFast)
+            throws IOException, FileImportException {
+        long t = IMPORT_STUDENTS.start();
+        try {
+            return streamImport(filename, STUDENT_HEADER, this::studentFromCSV, sink, failFast);
+        } catch (Exception e) {
+            IMPORT_STUDENTS.failed();
+            throw e;
+        } finally {
+            IMPORT_STUDENTS.stop(t);
+        }
+    }
+    
+    // Parallel import for big files: memory-maps the file and parses chunks
+    // on the common fork-join pool. Rows reach the sink in file order.
+    public ImportReport importStudentsParallel(String filename, Consumer<Student> sink, boolean failFast)
+            throws IOException, FileImportException {
+        long t = IMPORT_STUDENTS_PARALLEL.start();
+        try {
+            return parallelImport(filename, STUDENT_HEADER, this::studentFromCSV, sink, failFast);
+        } catch (Exception e) {
+            IMPORT_STUDENTS_PARALLEL.failed();
+            throw e;
+        } finally {
+            IMPORT_STUDENTS_PARALLEL.stop(t);
+        }
+    }
+    
     public void exportCourses(List<Course> courses, String filename) throws IOException {
+        long t = EXPORT_COURSES.start();
+        try {
+            Path path = cfg.getDataDirectory().resolve(filename);
+            List<String> lines = courses.stream()
+                    .map(this::courseToCSV)
+                    .collect(Collectors.toList());
+            
+            Files.write(path, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (Exception e) {
+            EXPORT_COURSES.failed();
+            throw e;
+        } finally {
+            EXPORT_COURSES.stop(t);
+        }
+    }
+    
+    public List<Course> importCourses(String filename, InstructorService teachers) throws IOException, FileImportException {
+        List<Course> result = new ArrayList<>();
+        ImportReport report = importCourses(filename, teachers, result::add, true);
+        if (!report.getUnresolved().isEmpty()) {
+            throw new FileImportException(filename, "unknown instructor IDs " + report.getUnresolved());
+        }
+        return result;
+    }
+    
+    // Unknown instructor IDs don't fail the line; the course is kept without
+    // a teacher and the IDs are listed once in the report
+    public ImportReport importCourses(String filename, InstructorService teachers,
+            Consumer<Course> sink, boolean failFast) throws IOException, FileImportException {
+        long t = IMPORT_COURSES.start();
+        try {
+            Set<String> unresolved = new TreeSet<>();
+            ImportReport report = streamImport(filename, COURSE_HEADER,
+                    line -> courseFromCSV(line, teachers, unresolved), sink, failFast);
+            report.setUnresolved(unresolved);
+            return report;
+        } catch (Exception e) {
+            IMPORT_COURSES.failed();
+            throw e;
+        } finally {
+            IMPORT_COURSES.stop(t);
+        }
+    }
+    
+    public ImportReport importCoursesParallel(String filename, InstructorService teachers,
+            Consumer<Course> sink, boolean failFast) throws IOException, FileImportException {
+        long t = IMPORT_COURSES_PARALLEL.start();
+        try {
+            Set<String> unresolved = new ConcurrentSkipListSet<>();
+            ImportReport report = parallelImport(filename, COURSE_HEADER,
+                    line -> courseFromCSV(line, teachers, unresolved), sink, failFast);
+            report.setUnresolved(unresolved);
+            return report;
+        } catch (Exception e) {
+            IMPORT_COURSES_PARALLEL.failed();
+            throw e;
+        } finally {
+            IMPORT_COURSES_PARALLEL.stop(t);
+        }
+    }
+    
+    // id,fullName,email,department - import these before the courses that reference them
+    public ImportReport importInstructors(String filename, Consumer<Instructor> sink, boolean failFast)
+            throws IOException, FileImportException {
+        long t = IMPORT_INSTRUCTORS.start();
+        try {
+            return streamImport(filename, INSTRUCTOR_HEADER, this::instructorFromCSV, sink, failFast);
+        } catch (Exception e) {
+            IMPORT_INSTRUCTORS.failed();
+            throw e;
+        } finally {
+            IMPORT_INSTRUCTORS.stop(t);
+        }
+    }
+    
+    // Bulk enrollment input: regNo,courseCode per line
+    public List<EnrollRequest> importEnrollRequests(String filename) throws IOException, FileImportException {
+        long t = IMPORT_ENROLL_REQUESTS.start();
+        try {
+            List<EnrollRequest> result = new ArrayList<>();
+            streamImport(filename, ENROLL_HEADER, this::enrollRequestFromCSV, result::add, true);
+            return result;
+        } catch (Exception e) {
+            IMPORT_ENROLL_REQUESTS.failed();
+            throw e;
+        } finally {
+            IMPORT_ENROLL_REQUESTS.stop(t);
+        }
+    }
+    
+    private <T> ImportReport parallelImport(String filename, String header, Function<String, T> parser,
+            Consumer<T> sink, boolean failFast) throws IOException, FileImportException {
         Path path = cfg.getDataDirectory().resolve(filename);
-        List<String> lines = courses.stream()
-                .map(this::courseToCSV)
-                .collect(Collectors.toList());
+        if (!Files.exists(path)) {
+            throw new FileImportException("File not found: " + filename);
+        }
         
-        Files.write(path, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        ImportReport report = new ImportReport(filename);
+        ImportEvent event = new ImportEvent();
+        event.begin();
+        long start = System.nanoTime();
+        
+        new ChunkedCsvReader(path, header, ChunkedCsvReader.DEFAULT_CHUNK)
+                .read(ForkJoinPool.commonPool(), parser, sink, failFast, report);
+        
+        report.finish(Files.size(path), System.nanoTime() - start);
+        event.finish(filename, report.getRows(), report.getErrorCount(), report.getBytes(), true);
+        return report;
     }
     
-    public List<Course> importCourses(String filename, List<Instructor> teachers) throws IOException, FileImportException {
+    private <T> ImportReport streamImport(String filename, String header, Function<String, T> parser,
+            Consumer<T> sink, boolean failFast) throws IOException, FileImportException {
         Path path = cfg.getDataDirectory().resolve(filename);
         if (!Files.exists(path)) {
             throw new FileImportException("File not found: " + filename);
         }
         
-        List<Course> result = new ArrayList<>();
-        List<String> lines = Files.readAllLines(path);
+        ImportReport report = new ImportReport(filename);
+        ImportEvent event = new ImportEvent();
+        event.begin();
+        long start = System.nanoTime();
         
-        for (int i = 0; i < lines.size(); i++) {
-            try {
-                String line = lines.get(i);
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
                 if (line.trim().isEmpty()) continue;
+                if (lineNo == 1 && line.startsWith(header)) continue;
                 
-                Course c = courseFromCSV(line, teachers);
-                result.add(c);
-            } catch (Exception e) {
-                throw new FileImportException("Bad line " + (i + 1) + ": " + e.getMessage());
+                // The sink can reject a row too (e.g. a reg number already in use)
+                try {
+                    sink.accept(parser.apply(line));
+                } catch (Exception e) {
+                    if (failFast) {
+                        throw new FileImportException("Bad line " + lineNo + ": " + e.getMessage());
+                    }
+                    report.addError(lineNo, e.getMessage());
+                    continue;
+                }
+                report.addRow();
             }
         }
         
-        return result;
+        report.finish(Files.size(path), System.nanoTime() - start);
+        event.finish(filename, report.getRows(), report.getErrorCount(), report.getBytes(), false);
+        return report;
     }
     
     private String studentToCSV(Student s) {
@@ -116,6 +319,22 @@ public class FileService {
         return s;
     }
     
+    private Instructor instructorFromCSV(String line) {
+        String[] parts = line.split(",");
+        if (parts.length < 4) {
+            throw new RuntimeException("Bad instructor CSV");
+        }
+        return new Instructor(parts[0], parts[1], parts[2], parts[3]);
+    }
+    
+    private EnrollRequest enrollRequestFromCSV(String line) {
+        String[] parts = line.split(",");
+        if (parts.length < 2) {
+            throw new RuntimeException("Bad enrollment CSV");
+        }
+        return new EnrollRequest(parts[0].trim(), parts[1].trim());
+    }
+    
     private String courseToCSV(Course c) {
         return String.join(",",
                 c.getCode().toString(),
@@ -128,13 +347,13 @@ public class FileService {
         );
     }
     
-    private Course courseFromCSV(String line, List<Instructor> teachers) {
+    private Course courseFromCSV(String line, InstructorService teachers, Set<String> unresolved) {
         String[] parts = line.split(",");
         if (parts.length < 7) {
             throw new RuntimeException("Bad course CSV");
         }
         
-        CourseCode code = new CourseCode(parts[0]);
+        CourseCode code = CourseCode.of(parts[0]);
         String title = parts[1];
         int credits = Integer.parseInt(parts[2]);
         String teacherId = parts[3];
@@ -142,10 +361,13 @@ public class FileService {
         String dept = parts[5];
         boolean active = Boolean.parseBoolean(parts[6]);
         
-        Instructor teacher = teachers.stream()
-                .filter(t -> t.getId().equals(teacherId))
-                .findFirst()
-                .orElse(null);
+        Instructor teacher = null;
+        if (!teacherId.isEmpty()) {
+            teacher = teachers.getInstructorById(teacherId);
+            if (teacher == null) {
+                unresolved.add(teacherId);
+            }
+        }
         
         Course c = new Course.Builder()
                 .setCode(code)
@@ -160,78 +382,438 @@ public class FileService {
         return c;
     }
     
-    public void backupData(String backupName) throws IOException {
-        Path backupDir = cfg.getBackupDirectory().resolve(backupName);
-        if (!Files.exists(backupDir)) {
+    // Incremental backup. Files whose size and mtime match the newest finished
+    // backup are hard-linked to its copy; the rest are copied (in parallel) while
+    // being hashed, and still linked if the content turns out to match a file
+    // there. Any failure fails the whole backup and no manifest is written.
+    public BackupReport backupData(String backupName) throws IOException {
+        long t = BACKUP.start();
+        try {
+            Path dataDir = cfg.getDataDirectory();
+            Path backupDir = cfg.getBackupDirectory().resolve(backupName);
+            if (BackupManifest.exists(backupDir)) {
+                throw new IOException("Backup already exists: " + backupName);
+            }
             Files.createDirectories(backupDir);
+            
+            BackupReport report = new BackupReport(backupName);
+            BackupEvent event = new BackupEvent();
+            event.begin();
+            long start = System.nanoTime();
+            
+            Path prevDir = latestBackup();
+            BackupManifest prev = prevDir != null ? BackupManifest.read(prevDir)
+                    : new BackupManifest(BackupManifest.Mode.DIRECTORY);
+            Map<String, String> prevByHash = prev.pathsByHash();
+            
+            List<Path> files = dataFiles(dataDir);
+            
+            List<Callable<BackupManifest.Entry>> jobs = new ArrayList<>();
+            for (Path src : files) {
+                String rel = dataDir.relativize(src).toString();
+                jobs.add(() -> backupFile(src, rel, backupDir, prevDir, prev, prevByHash, report));
+            }
+            
+            BackupManifest manifest = new BackupManifest(BackupManifest.Mode.DIRECTORY);
+            for (BackupManifest.Entry e : runParallel(jobs, "Backup " + backupName)) {
+                manifest.add(e);
+            }
+            manifest.write(backupDir);
+            report.finish(System.nanoTime() - start);
+            event.finish(backupName, false, report.getCopiedFiles(), report.getLinkedFiles(), report.getCopiedBytes());
+            return report;
+        } catch (Exception e) {
+            BACKUP.failed();
+            throw e;
+        } finally {
+            BACKUP.stop(t);
         }
+    }
+    
+    private BackupManifest.Entry backupFile(Path src, String rel, Path backupDir, Path prevDir,
+            BackupManifest prev, Map<String, String> prevByHash, BackupReport report) throws IOException {
+        BasicFileAttributes before = Files.readAttributes(src, BasicFileAttributes.class);
+        long size = before.size();
+        long modified = before.lastModifiedTime().toMillis();
+        Path dest = backupDir.resolve(rel);
+        Files.createDirectories(dest.getParent());
         
-        // Copy files from data dir to backup
-        try (Stream<Path> paths = Files.walk(cfg.getDataDirectory())) {
-            paths.filter(Files::isRegularFile)
-                 .forEach(src -> {
-                     try {
-                         Path dest = backupDir.resolve(cfg.getDataDirectory().relativize(src));
-                         Files.createDirectories(dest.getParent());
-                         Files.copy(src, dest, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                     } catch (IOException e) {
-                         System.err.println("Failed to copy: " + e.getMessage());
-                     }
-                 });
+        // Unchanged since the last backup: trust its hash, share its copy
+        BackupManifest.Entry old = prev.get(rel);
+        if (old != null && old.getSize() == size && old.getModified() == modified && old.hasCrc()
+                && link(prevDir.resolve(rel), dest)) {
+            report.addLinked(size);
+            return new BackupManifest.Entry(rel, size, modified, old.getHash(), old.getCrc());
         }
+        
+        CRC32C crc = new CRC32C();
+        String hash = copyHashing(src, dest, crc);
+        String same = prevByHash.get(hash);
+        if (same != null && link(prevDir.resolve(same), dest)) {
+            report.addLinked(size);
+        } else {
+            report.addCopied(size);
+        }
+        
+        // Changed while we copied? Record an impossible mtime so the next
+        // backup re-reads it instead of trusting this hash
+        BasicFileAttributes after = Files.readAttributes(src, BasicFileAttributes.class);
+        if (after.size() != size || after.lastModifiedTime().toMillis() != modified) {
+            modified = -1;
+        }
+        return new BackupManifest.Entry(rel, size, modified, hash, crc.getValue());
     }
     
-    public long getBackupSize(String backupName) throws IOException {
-        Path backupDir = cfg.getBackupDirectory().resolve(backupName);
-        if (!Files.exists(backupDir)) {
-            return 0;
+    // Hard-links dest to existing; false if the filesystem won't
+    private boolean link(Path existing, Path dest) {
+        try {
+            Files.deleteIfExists(dest);
+            Files.createLink(dest, existing);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
         }
-        
-        return calcDirSize(backupDir);
     }
     
-    // Calculate folder size
-    private long calcDirSize(Path path) throws IOException {
-        if (!Files.exists(path)) {
-            return 0;
+    // Copies src to dest, returning the SHA-256 of what was copied (crc gets it too)
+    private String copyHashing(Path src, Path dest, CRC32C crc) throws IOException {
+        MessageDigest md = sha256();
+        byte[] buf = new byte[COPY_BUFFER];
+        try (InputStream in = Files.newInputStream(src);
+             OutputStream out = Files.newOutputStream(dest)) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                md.update(buf, 0, n);
+                crc.update(buf, 0, n);
+                out.write(buf, 0, n);
+            }
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+    
+    // Archive backup: the data directory streamed into one zip at the
+    // configured compression level (backups/<name>/data.zip), and a manifest
+    // with each file's size and CRC32C. Nothing is linked or deduplicated.
+    public BackupReport backupArchive(String backupName) throws IOException {
+        long t = BACKUP_ARCHIVE.start();
+        try {
+            Path dataDir = cfg.getDataDirectory();
+            Path backupDir = cfg.getBackupDirectory().resolve(backupName);
+            if (BackupManifest.exists(backupDir)) {
+                throw new IOException("Backup already exists: " + backupName);
+            }
+            Files.createDirectories(backupDir);
+            
+            BackupReport report = new BackupReport(backupName);
+            BackupEvent event = new BackupEvent();
+            event.begin();
+            long start = System.nanoTime();
+            
+            BackupManifest manifest = new BackupManifest(BackupManifest.Mode.ARCHIVE);
+            Path archive = backupDir.resolve(BackupManifest.ARCHIVE);
+            Path tmp = backupDir.resolve(BackupManifest.ARCHIVE + ".tmp");
+            byte[] buf = new byte[COPY_BUFFER];
+            CRC32C crc = new CRC32C();
+            
+            try (ZipOutputStream zip = new ZipOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), COPY_BUFFER))) {
+                zip.setLevel(cfg.getBackupCompressionLevel());
+                for (Path src : dataFiles(dataDir)) {
+                    String rel = dataDir.relativize(src).toString();
+                    FileTime modified = Files.getLastModifiedTime(src);
+                    
+                    ZipEntry entry = new ZipEntry(rel.replace(File.separatorChar, '/'));
+                    entry.setLastModifiedTime(modified);
+                    zip.putNextEntry(entry);
+                    
+                    crc.reset();
+                    long size = 0;
+                    try (InputStream in = Files.newInputStream(src)) {
+                        int n;
+                        while ((n = in.read(buf)) > 0) {
+                            crc.update(buf, 0, n);
+                            zip.write(buf, 0, n);
+                            size += n;
+                        }
+                    }
+                    zip.closeEntry();
+                    
+                    manifest.add(new BackupManifest.Entry(rel, size, modified.toMillis(), null, crc.getValue()));
+                    report.addCopied(size);
+                }
+            }
+            Files.move(tmp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            
+            long stored = Files.size(archive);
+            manifest.setStoredSize(stored);
+            manifest.write(backupDir);
+            report.finish(System.nanoTime() - start);
+            report.setStoredBytes(stored);
+            event.finish(backupName, true, report.getCopiedFiles(), 0, report.getCopiedBytes());
+            return report;
+        } catch (Exception e) {
+            BACKUP_ARCHIVE.failed();
+            throw e;
+        } finally {
+            BACKUP_ARCHIVE.stop(t);
         }
+    }
+    
+    // Restores a finished backup in place of the data directory.
+    // Every file is copied (never linked: the journal appends in place) into a
+    // sibling staging folder on the copy threads and checked against the
+    // manifest's CRC32C (SHA-256 for v1 manifests) on the way. Only if all of
+    // them check out is staging swapped in: the data folder is renamed aside
+    // to <data>.old-<time> and staging renamed into its place, both on the
+    // same filesystem. The old folder is kept; its path is in the report.
+    // The caller closes the journal first and reloads the services after.
+    public RestoreReport restoreBackup(String backupName) throws IOException {
+        long t = RESTORE.start();
+        try {
+            Path backupDir = cfg.getBackupDirectory().resolve(backupName);
+            if (!BackupManifest.exists(backupDir)) {
+                throw new IOException("No finished backup named " + backupName);
+            }
+            BackupManifest manifest = BackupManifest.read(backupDir);
+            
+            Path dataDir = cfg.getDataDirectory().toAbsolutePath();
+            String stamp = String.valueOf(System.currentTimeMillis());
+            Path staging = dataDir.resolveSibling(dataDir.getFileName() + ".restore-" + stamp);
+            Path old = dataDir.resolveSibling(dataDir.getFileName() + ".old-" + stamp);
+            
+            RestoreReport report = new RestoreReport(backupName);
+            long start = System.nanoTime();
+            Files.createDirectories(staging);
+            
+            try {
+                if (manifest.getMode() == BackupManifest.Mode.ARCHIVE) {
+                    // ZipFile reads entries independently, so they can inflate in parallel
+                    try (ZipFile zip = new ZipFile(backupDir.resolve(BackupManifest.ARCHIVE).toFile())) {
+                        List<Callable<Void>> jobs = new ArrayList<>();
+                        for (BackupManifest.Entry e : manifest.getEntries()) {
+                            jobs.add(() -> {
+                                ZipEntry ze = zip.getEntry(e.getPath().replace(File.separatorChar, '/'));
+                                if (ze == null) {
+                                    throw new IOException(e.getPath() + " is missing from the archive");
+                                }
+                                try (InputStream in = zip.getInputStream(ze)) {
+                                    copyVerified(in, staging, e, report);
+                                }
+                                return null;
+                            });
+                        }
+                        runParallel(jobs, "Restore " + backupName);
+                    }
+                } else {
+                    List<Callable<Void>> jobs = new ArrayList<>();
+                    for (BackupManifest.Entry e : manifest.getEntries()) {
+                        jobs.add(() -> {
+                            try (InputStream in = Files.newInputStream(backupDir.resolve(e.getPath()))) {
+                                copyVerified(in, staging, e, report);
+                            }
+                            return null;
+                        });
+                    }
+                    runParallel(jobs, "Restore " + backupName);
+                }
+            } catch (IOException e) {
+                // Nothing touched the data dir yet
+                deleteTree(staging);
+                throw e;
+            }
+            
+            boolean hadData = Files.exists(dataDir);
+            if (hadData) {
+                Files.move(dataDir, old, StandardCopyOption.ATOMIC_MOVE);
+            }
+            try {
+                Files.move(staging, dataDir, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                if (hadData) {
+                    Files.move(old, dataDir, StandardCopyOption.ATOMIC_MOVE);
+                }
+                deleteTree(staging);
+                throw e;
+            }
+            
+            report.finish(System.nanoTime() - start, hadData ? old : null);
+            return report;
+        } catch (Exception e) {
+            RESTORE.failed();
+            throw e;
+        } finally {
+            RESTORE.stop(t);
+        }
+    }
+    
+    // Copies one backed-up file into dir and checks it against its manifest entry
+    private void copyVerified(InputStream in, Path dir, BackupManifest.Entry e, RestoreReport report)
+            throws IOException {
+        Path dest = dir.resolve(e.getPath());
+        Files.createDirectories(dest.getParent());
         
-        if (Files.isRegularFile(path)) {
-            return Files.size(path);
+        CRC32C crc = new CRC32C();
+        MessageDigest md = e.hasCrc() ? null : sha256();
+        byte[] buf = new byte[COPY_BUFFER];
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(dest)) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                if (md != null) {
+                    md.update(buf, 0, n);
+                } else {
+                    crc.update(buf, 0, n);
+                }
+                out.write(buf, 0, n);
+                size += n;
+            }
         }
         
-        try (Stream<Path> paths = Files.list(path)) {
-            return paths.mapToLong(p -> {
+        boolean ok = size == e.getSize() && (md != null
+                ? HexFormat.of().formatHex(md.digest()).equals(e.getHash())
+                : crc.getValue() == e.getCrc());
+        if (!ok) {
+            throw new IOException("Checksum mismatch for " + e.getPath());
+        }
+        report.addFile(size);
+    }
+    
+    // Runs jobs on the copy threads. Every job runs even if some fail; the
+    // first failure is thrown with the others attached as suppressed.
+    private <T> List<T> runParallel(List<Callable<T>> jobs, String what) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(COPY_THREADS);
+        List<T> results = new ArrayList<>(jobs.size());
+        IOException failure = null;
+        try {
+            List<Future<T>> running = new ArrayList<>(jobs.size());
+            for (Callable<T> job : jobs) {
+                running.add(pool.submit(job));
+            }
+            for (Future<T> f : running) {
                 try {
-                    if (Files.isDirectory(p)) {
-                        return calcDirSize(p);
+                    results.add(f.get());
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = new IOException(what + " failed: " + e.getCause().getMessage(), e.getCause());
                     } else {
-                        return Files.size(p);
+                        failure.addSuppressed(e.getCause());
                     }
-                } catch (IOException e) {
-                    System.err.println("Size calc error: " + e.getMessage());
-                    return 0;
                 }
-            }).sum();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(what + " interrupted");
+        } finally {
+            pool.shutdownNow();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+    
+    private void deleteTree(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            List<Path> all = paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            for (Path p : all) {
+                Files.delete(p);
+            }
+        }
+    }
+    
+    // Regular files under the data dir, minus half-written *.tmp checkpoints
+    private List<Path> dataFiles(Path dataDir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dataDir)) {
+            return paths.filter(Files::isRegularFile)
+                        .filter(p -> !p.getFileName().toString().endsWith(".tmp"))
+                        .collect(Collectors.toList());
+        }
+    }
+    
+    private static MessageDigest sha256() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+    
+    // Newest finished directory backup (archives have nothing to link to), or null
+    private Path latestBackup() throws IOException {
+        Path root = cfg.getBackupDirectory();
+        if (!Files.exists(root)) {
+            return null;
+        }
+        
+        Path best = null;
+        FileTime bestTime = null;
+        try (Stream<Path> paths = Files.list(root)) {
+            for (Path dir : (Iterable<Path>) paths::iterator) {
+                if (!BackupManifest.exists(dir) || Files.exists(dir.resolve(BackupManifest.ARCHIVE))) continue;
+                FileTime t = Files.getLastModifiedTime(dir.resolve(BackupManifest.FILE));
+                if (bestTime == null || t.compareTo(bestTime) > 0) {
+                    best = dir;
+                    bestTime = t;
+                }
+            }
+        }
+        return best;
+    }
+    
+    // From the manifest. Folders without one (unfinished, or from before
+    // manifests) aren't backups as far as listing and restore go, so no size either.
+    public long getBackupSize(String backupName) throws IOException {
+        long t = BACKUP_SIZE.start();
+        try {
+            Path backupDir = cfg.getBackupDirectory().resolve(backupName);
+            if (!Files.exists(backupDir)) {
+                return 0;
+            }
+            if (!BackupManifest.exists(backupDir)) {
+                throw new IOException("No finished backup named " + backupName);
+            }
+            return BackupManifest.read(backupDir).getStoredSize();
+        } catch (Exception e) {
+            BACKUP_SIZE.failed();
+            throw e;
+        } finally {
+            BACKUP_SIZE.stop(t);
         }
     }
     
     // Quick file existence check
     public boolean fileExists(String filename) {
-        return Files.exists(cfg.getDataDirectory().resolve(filename));
+        long t = FILE_EXISTS.start();
+        try {
+            return Files.exists(cfg.getDataDirectory().resolve(filename));
+        } finally {
+            FILE_EXISTS.stop(t);
+        }
     }
     
-    // Get list of backup folders
+    // Get list of finished backups (folders with a manifest)
     public List<String> getBackups() throws IOException {
-        Path backupDir = cfg.getBackupDirectory();
-        if (!Files.exists(backupDir)) {
-            return new ArrayList<>();
-        }
-        
-        try (Stream<Path> paths = Files.list(backupDir)) {
-            return paths.filter(Files::isDirectory)
-                       .map(p -> p.getFileName().toString())
-                       .collect(Collectors.toList());
+        long t = LIST_BACKUPS.start();
+        try {
+            Path backupDir = cfg.getBackupDirectory();
+            if (!Files.exists(backupDir)) {
+                return new ArrayList<>();
+            }
+            
+            try (Stream<Path> paths = Files.list(backupDir)) {
+                return paths.filter(BackupManifest::exists)
+                           .map(p -> p.getFileName().toString())
+                           .sorted()
+                           .collect(Collectors.toList());
+            }
+        } catch (Exception e) {
+            LIST_BACKUPS.failed();
+            throw e;
+        } finally {
+            LIST_BACKUPS.stop(t);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+// src/edu/ccrm/io/ImportReport.java
+package edu.ccrm.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Outcome of a streaming import: counts, per-line errors and throughput
+public class ImportReport {
+    // Don't let a completely broken file eat the heap with error strings
+    public static final int MAX_KEPT_ERRORS = 1000;
+    
+    private final String file;
+    private long rows;
+    private long errorCount;
+    private long bytes;
+    private long nanos;
+    private final List<String> errors = new ArrayList<>();
+    // Referenced IDs that couldn't be resolved (e.g. unknown instructors)
+    private Set<String> unresolved = new TreeSet<>();
+    
+    public ImportReport(String file) {
+        this.file = file;
+    }
+    
+    void addRow() {
+        rows++;
+    }
+    
+    void addError(long lineNo, String msg) {
+        errorCount++;
+        if (errors.size() < MAX_KEPT_ERRORS) {
+            errors.add("Line " + lineNo + ": " + msg);
+        }
+    }
+    
+    void setUnresolved(Set<String> ids) {
+        this.unresolved = new TreeSet<>(ids);
+    }
+    
+    void finish(long bytes, long nanos) {
+        this.bytes = bytes;
+        this.nanos = nanos;
+    }
+    
+    public String getFile() { return file; }
+    public long getRows() { return rows; }
+    public long getErrorCount() { return errorCount; }
+    public List<String> getErrors() { return errors; }
+    public Set<String> getUnresolved() { return unresolved; }
+    public long getBytes() { return bytes; }
+    public long getElapsedNanos() { return nanos; }
+    
+    public boolean hasErrors() {
+        return errorCount > 0;
+    }
+    
+    public double getRowsPerSec() {
+        return nanos > 0 ? rows * 1e9 / nanos : 0;
+    }
+    
+    public double getMBPerSec() {
+        return nanos > 0 ? (bytes / (1024.0 * 1024.0)) * 1e9 / nanos : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %d rows, %d errors in %d ms (%.0f rows/sec, %.1f MB/s)",
+                file, rows, errorCount, nanos / 1_000_000, getRowsPerSec(), getMBPerSec());
+    }
+}
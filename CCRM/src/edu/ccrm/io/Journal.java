@@ -0,0 +1,760 @@
+// src/edu/ccrm/io/Journal.java
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.InstructorService;
+import edu.ccrm.service.MutationListener;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.util.CourseCode;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+// Append-only write-ahead journal of every service mutation.
+//
+// Record layout: [int bodyLen][int crc32c(body)][body], where body is
+// [long lsn][byte type][fields...]. Appends go into an in-memory batch;
+// a background thread writes the batch and fsyncs it once per commit
+// interval (group commit), so many mutations share one force().
+//
+// On startup, recover() loads snapshot.bin (see BinarySnapshot; it covers
+// everything up to its LSN) and replays journal.log on top. A torn or
+// corrupt tail is cut off at the last good record. With lazyLoad, the
+// snapshot is memory-mapped instead and students are only built when
+// first looked up (see MappedSnapshot).
+//
+// A failed write is cut back off the file and the journal stops there:
+// every later append/sync/checkpoint/close throws instead of carrying on
+// with records missing from the middle.
+public class Journal implements MutationListener, AutoCloseable {
+    public static final String JOURNAL_FILE = "journal.log";
+    public static final String SNAPSHOT_FILE = "snapshot.bin";
+    
+    private static final int MAX_RECORD = 1 << 20;
+    
+    // Record types
+    static final byte STUDENT_PUT = 1;
+    static final byte STUDENT_OFF = 2;
+    static final byte COURSE_PUT = 3;
+    static final byte COURSE_OFF = 4;
+    static final byte ENROLL = 5;
+    static final byte UNENROLL = 6;
+    static final byte GRADE = 7;
+    static final byte INSTRUCTOR_PUT = 8;
+    static final byte INSTRUCTOR_OFF = 9;
+    
+    private final Path dir;
+    private final Path journalPath;
+    private final long commitMillis;
+    private final boolean lazyLoad;
+    
+    private FileChannel ch;
+    private Thread flusher;
+    // Serialises writes to the channel; taken after 'this' when both are needed
+    private final Object io = new Object();
+    
+    // Guarded by 'this'
+    private ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    private long lastLsn;
+    private long durableLsn;
+    private IOException flushError;
+    private boolean closed;
+    
+    public Journal(Path dir, long commitMillis, boolean lazyLoad) {
+        this.dir = dir;
+        this.journalPath = dir.resolve(JOURNAL_FILE);
+        this.commitMillis = commitMillis;
+        this.lazyLoad = lazyLoad;
+    }
+    
+    // Replays snapshot + journal into the (empty) services, then opens the
+    // journal for appending. Call before attaching the journal as listener.
+    public RecoveryStats recover(StudentService stu, CourseService crs, InstructorService inst) throws IOException {
+        Replayer r = new Replayer(stu, crs, inst);
+        long start = System.nanoTime();
+        
+        long coveredLsn = 0;
+        Path snap = dir.resolve(SNAPSHOT_FILE);
+        MappedSnapshot mapped = null;
+        if (lazyLoad && Files.exists(snap)) {
+            mapped = MappedSnapshot.open(snap, stu.getEnrollmentStore());
+        }
+        if (mapped != null) {
+            r.load(mapped);
+            coveredLsn = mapped.getCoveredLsn();
+        } else if (Files.exists(snap)) {
+            BinarySnapshot.Loaded l = BinarySnapshot.read(snap, stu.getEnrollmentStore());
+            r.load(l);
+            coveredLsn = l.getCoveredLsn();
+        }
+        
+        long good = 0;
+        if (Files.exists(journalPath)) {
+            try (InputStream raw = Files.newInputStream(journalPath)) {
+                long size = Files.size(journalPath);
+                good = readRecords(new DataInputStream(new BufferedInputStream(raw)), 0, r, coveredLsn);
+                if (good < 0) {
+                    good = -good - 1;
+                }
+                if (good < size) {
+                    r.stats.tornBytes = size - good;
+                }
+            }
+        }
+        
+        ch = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (r.stats.tornBytes > 0) {
+            // Drop the torn tail so new records don't land after garbage
+            ch.truncate(good);
+            ch.force(true);
+        }
+        ch.position(ch.size());
+        
+        lastLsn = Math.max(coveredLsn, r.maxLsn);
+        durableLsn = lastLsn;
+        startFlusher();
+        
+        r.stats.nanos = System.nanoTime() - start;
+        return r.stats;
+    }
+    
+    // Reads records until EOF. Returns the offset after the last good record,
+    // or -(offset + 1) if it stopped on a torn/corrupt record.
+    private long readRecords(DataInputStream in, long offset, Replayer r, long skipUpTo) throws IOException {
+        CRC32C crc = new CRC32C();
+        while (true) {
+            int len;
+            try {
+                len = in.readInt();
+            } catch (EOFException e) {
+                return offset; // clean end
+            }
+            
+            byte[] body;
+            int sum;
+            try {
+                sum = in.readInt();
+                if (len <= 9 || len > MAX_RECORD) {
+                    return -(offset + 1);
+                }
+                body = new byte[len];
+                in.readFully(body);
+            } catch (EOFException e) {
+                return -(offset + 1);
+            }
+            
+            crc.reset();
+            crc.update(body, 0, len);
+            if ((int) crc.getValue() != sum) {
+                return -(offset + 1);
+            }
+            
+            DataInputStream rec = new DataInputStream(new ByteArrayInputStream(body));
+            long lsn = rec.readLong();
+            byte type = rec.readByte();
+            if (lsn > skipUpTo) {
+                r.apply(type, rec);
+            }
+            r.maxLsn = Math.max(r.maxLsn, lsn);
+            offset += 8 + len;
+        }
+    }
+    
+    // Writes the current state as a binary snapshot covering every LSN so far,
+    // then empties the journal
+    public synchronized void checkpoint(StudentService stu, CourseService crs, InstructorService inst)
+            throws IOException {
+        // Without an open journal we can't empty it, so don't write a snapshot either
+        checkUsable();
+        synchronized (io) {
+            writeBatch();
+        }
+        long covered = lastLsn;
+        
+        // getStudentRecords() pulls in anything still only in a mapped
+        // snapshot, so replacing that file below is safe
+        Path tmp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        BinarySnapshot.write(tmp, covered, inst.getInstructorRecords(),
+                crs.getCourseRecords(), stu.getStudentRecords());
+        Files.move(tmp, dir.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        
+        // Safe even if we crash before this: replay skips LSNs the snapshot covers
+        synchronized (io) {
+            try {
+                ch.truncate(0);
+                ch.position(0);
+                ch.force(true);
+            } catch (IOException e) {
+                flushError = e;
+                throw e;
+            }
+        }
+    }
+    
+    // Blocks until everything appended so far is on disk
+    public synchronized void sync() throws IOException {
+        if (flushError != null) {
+            throw flushError;
+        }
+        long target = lastLsn;
+        while (durableLsn < target) {
+            if (flushError != null) {
+                throw flushError;
+            }
+            if (closed) {
+                break;
+            }
+            notifyAll();
+            try {
+                wait(commitMillis + 10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for journal sync");
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        Thread t;
+        synchronized (this) {
+            if (closed || ch == null) return;
+            closed = true;
+            notifyAll();
+            t = flusher;
+        }
+        try {
+            t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            synchronized (io) {
+                try {
+                    if (flushError == null) {
+                        writeBatch();
+                    }
+                } finally {
+                    ch.close();
+                }
+            }
+            if (flushError != null) {
+                throw flushError;
+            }
+        }
+    }
+    
+    // Picks up appending again after close(), for when the files on disk
+    // turned out not to change (e.g. a restore that failed before touching them)
+    public synchronized void reopen() throws IOException {
+        if (!closed) return;
+        checkUsable();
+        ch = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ch.position(ch.size());
+        closed = false;
+        startFlusher();
+    }
+    
+    public Path getPath() {
+        return journalPath;
+    }
+    
+    // --- MutationListener: one record per change ---
+    
+    // Refuses changes we couldn't log, before the services apply them
+    @Override
+    public synchronized void beforeChange() {
+        if (ch == null) {
+            throw new IllegalStateException("Journal not open, recover() failed or wasn't called");
+        }
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (flushError != null) {
+            throw new IllegalStateException("Journal stopped after a failed write", flushError);
+        }
+    }
+    
+    @Override
+    public void studentSaved(Student s) {
+        append(STUDENT_PUT, w -> writeStudent(w, s));
+    }
+    
+    @Override
+    public void studentDeactivated(Student s) {
+        append(STUDENT_OFF, w -> w.writeUTF(s.getId()));
+    }
+    
+    @Override
+    public void instructorSaved(Instructor i) {
+        append(INSTRUCTOR_PUT, w -> writeInstructor(w, i));
+    }
+    
+    @Override
+    public void instructorDeactivated(Instructor i) {
+        append(INSTRUCTOR_OFF, w -> w.writeUTF(i.getId()));
+    }
+    
+    @Override
+    public void courseSaved(Course c) {
+        append(COURSE_PUT, w -> writeCourse(w, c));
+    }
+    
+    @Override
+    public void courseDeactivated(Course c) {
+        append(COURSE_OFF, w -> w.writeUTF(c.getCode().toString()));
+    }
+    
+    @Override
+    public void enrolled(Enrollment e) {
+        append(ENROLL, w -> writeEnroll(w, e));
+    }
+    
+    @Override
+    public void unenrolled(Enrollment e) {
+        append(UNENROLL, w -> writeKey(w, e));
+    }
+    
+    @Override
+    public void gradeChanged(Enrollment e) {
+        append(GRADE, w -> writeGrade(w, e));
+    }
+    
+    // --- encoding ---
+    
+    private interface Fields {
+        void write(DataOutputStream w) throws IOException;
+    }
+    
+    private static void writeStudent(DataOutputStream w, Student s) throws IOException {
+        w.writeUTF(s.getId());
+        w.writeUTF(s.getRegNo());
+        w.writeUTF(s.getName());
+        w.writeUTF(s.getEmail());
+        w.writeBoolean(s.isActive());
+        w.writeLong(s.getDateCreated().toEpochDay());
+    }
+    
+    private static void writeInstructor(DataOutputStream w, Instructor i) throws IOException {
+        w.writeUTF(i.getId());
+        w.writeUTF(i.getName());
+        w.writeUTF(i.getEmail());
+        w.writeUTF(i.getDepartment() != null ? i.getDepartment() : "");
+        w.writeBoolean(i.isActive());
+        w.writeLong(i.getDateCreated().toEpochDay());
+    }
+    
+    private static void writeCourse(DataOutputStream w, Course c) throws IOException {
+        w.writeUTF(c.getCode().toString());
+        w.writeUTF(c.getTitle());
+        w.writeInt(c.getCredits());
+        w.writeUTF(c.getInstructor() != null ? c.getInstructor().getId() : "");
+        w.writeByte(c.getSemester() != null ? c.getSemester().ordinal() : -1);
+        w.writeUTF(c.getDepartment() != null ? c.getDepartment() : "");
+        w.writeBoolean(c.isActive());
+    }
+    
+    private static void writeKey(DataOutputStream w, Enrollment e) throws IOException {
+        w.writeUTF(e.getStudent().getId());
+        w.writeUTF(e.getCourse().getCode().toString());
+    }
+    
+    private static void writeEnroll(DataOutputStream w, Enrollment e) throws IOException {
+        writeKey(w, e);
+        w.writeLong(e.getEnrollmentDate().toEpochDay());
+    }
+    
+    private static void writeGrade(DataOutputStream w, Enrollment e) throws IOException {
+        writeKey(w, e);
+        Grade g = e.getGrade();
+        w.writeByte(g != null ? g.ordinal() : -1);
+    }
+    
+    private static byte[] frame(long lsn, byte type, Fields f) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(64);
+        DataOutputStream w = new DataOutputStream(buf);
+        w.writeInt(0); // length, patched below
+        w.writeInt(0); // crc, patched below
+        w.writeLong(lsn);
+        w.writeByte(type);
+        f.write(w);
+        w.flush();
+        
+        byte[] rec = buf.toByteArray();
+        int len = rec.length - 8;
+        CRC32C crc = new CRC32C();
+        crc.update(rec, 8, len);
+        ByteBuffer.wrap(rec).putInt(0, len).putInt(4, (int) crc.getValue());
+        return rec;
+    }
+    
+    // The change is already made by now, so this doesn't throw: beforeChange()
+    // turned it away if we couldn't take it. Losing that race to close() or a
+    // failed flush drops the record with the rest of the unwritten batch, and
+    // sync()/close() report the failure.
+    private void append(byte type, Fields f) {
+        synchronized (this) {
+            if (ch == null || closed) {
+                return;
+            }
+            try {
+                batch.write(frame(++lastLsn, type, f));
+            } catch (IOException e) {
+                // ByteArrayOutputStream doesn't really throw
+                throw new IllegalStateException("Journal encode failed", e);
+            }
+            if (batch.size() > (1 << 20)) {
+                notifyAll(); // big batch, wake the flusher early
+            }
+        }
+    }
+    
+    // --- group commit ---
+    
+    private void startFlusher() {
+        flusher = new Thread(this::flushLoop, "ccrm-journal");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+    
+    private void flushLoop() {
+        while (true) {
+            byte[] data;
+            long upTo;
+            synchronized (this) {
+                try {
+                    while (!closed && batch.size() == 0) {
+                        wait();
+                    }
+                    // Let a batch build up for one commit interval
+                    if (!closed) {
+                        wait(commitMillis);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) {
+                    return; // close() writes whatever is left
+                }
+                data = batch.toByteArray();
+                batch.reset();
+                upTo = lastLsn;
+            }
+            
+            // Appenders keep going while we write and fsync
+            IOException failed = null;
+            synchronized (io) {
+                try {
+                    write(data);
+                } catch (IOException e) {
+                    failed = e;
+                }
+            }
+            
+            synchronized (this) {
+                if (failed != null) {
+                    // Nothing from this batch on is durable; wake the waiters so they throw
+                    flushError = failed;
+                    notifyAll();
+                    System.err.println("Journal write failed, journal stopped: " + failed.getMessage());
+                    return;
+                }
+                durableLsn = Math.max(durableLsn, upTo);
+                notifyAll();
+            }
+        }
+    }
+    
+    // Caller holds both locks
+    private void writeBatch() throws IOException {
+        if (batch.size() > 0) {
+            try {
+                write(batch.toByteArray());
+            } catch (IOException e) {
+                flushError = e;
+                throw e;
+            }
+            batch.reset();
+        }
+        durableLsn = lastLsn;
+    }
+    
+    // Writes and forces, or cuts the file back to where it was so a
+    // half-written batch can't sit in front of later records. Caller holds 'io'.
+    private void write(byte[] data) throws IOException {
+        long good = ch.position();
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            ch.force(false);
+        } catch (IOException e) {
+            try {
+                ch.truncate(good);
+                ch.position(good);
+            } catch (IOException again) {
+                // recover() drops the torn tail next time; nothing more is written after it
+                e.addSuppressed(again);
+            }
+            throw e;
+        }
+    }
+    
+    // Caller holds 'this'
+    private void checkUsable() throws IOException {
+        if (flushError != null) {
+            throw flushError;
+        }
+        if (ch == null || closed) {
+            throw new IOException("Journal not open");
+        }
+    }
+    
+    // --- replay ---
+    
+    public static class RecoveryStats {
+        private long records;
+        private long skipped;
+        private long tornBytes;
+        private long nanos;
+        
+        RecoveryStats() {
+        }
+        
+        public long getRecords() { return records; }
+        public long getSkipped() { return skipped; }
+        public long getTornBytes() { return tornBytes; }
+        public long getElapsedNanos() { return nanos; }
+        
+        @Override
+        public String toString() {
+            return records + " records replayed, " + skipped + " skipped"
+                    + (tornBytes > 0 ? ", " + tornBytes + " torn bytes dropped" : "")
+                    + " in " + nanos / 1_000_000 + " ms";
+        }
+    }
+    
+    private static class Replayer {
+        final StudentService stu;
+        final CourseService crs;
+        final InstructorService inst;
+        final RecoveryStats stats = new RecoveryStats();
+        long maxLsn;
+        
+        // Everything seen so far, including deactivated records the services hide.
+        // In lazy mode students not touched yet are still in the mapped snapshot.
+        final Map<String, Student> students = new HashMap<>();
+        final Map<String, Course> courses = new HashMap<>();
+        
+        Replayer(StudentService stu, CourseService crs, InstructorService inst) {
+            this.stu = stu;
+            this.crs = crs;
+            this.inst = inst;
+        }
+        
+        void load(BinarySnapshot.Loaded l) {
+            for (Instructor i : l.getInstructors()) {
+                inst.addInstructor(i);
+            }
+            for (Course c : l.getCourses()) {
+                crs.addCourse(c);
+                courses.put(c.getCode().toString(), c);
+            }
+            for (Student s : l.getStudents()) {
+                try {
+                    stu.addStudent(s);
+                } catch (IllegalArgumentException e) {
+                    stats.skipped++;
+                }
+                students.put(s.getId(), s);
+            }
+        }
+        
+        void load(MappedSnapshot m) {
+            for (Instructor i : m.getInstructors()) {
+                inst.addInstructor(i);
+            }
+            for (Course c : m.getCourses()) {
+                crs.addCourse(c);
+                courses.put(c.getCode().toString(), c);
+            }
+            stu.setSource(m);
+        }
+        
+        Student student(String id) {
+            Student s = students.get(id);
+            if (s == null) {
+                s = stu.getStudentRecord(id);
+            }
+            return s;
+        }
+        
+        void apply(byte type, DataInputStream in) throws IOException {
+            stats.records++;
+            switch (type) {
+                case STUDENT_PUT: {
+                    String id = in.readUTF();
+                    String reg = in.readUTF();
+                    String name = in.readUTF();
+                    String email = in.readUTF();
+                    boolean active = in.readBoolean();
+                    LocalDate created = LocalDate.ofEpochDay(in.readLong());
+                    putStudent(id, reg, name, email, active, created);
+                    break;
+                }
+                case STUDENT_OFF: {
+                    Student s = student(in.readUTF());
+                    if (s != null) {
+                        stu.deactivateStudent(s.getId());
+                        s.setActive(false);
+                    } else {
+                        stats.skipped++;
+                    }
+                    break;
+                }
+                case INSTRUCTOR_PUT: {
+                    // Logged before any course that names them, so courses replayed
+                    // after this find the instructor
+                    Instructor i = new Instructor(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF());
+                    i.setActive(in.readBoolean());
+                    i.setDateCreated(LocalDate.ofEpochDay(in.readLong()));
+                    inst.addInstructor(i);
+                    break;
+                }
+                case INSTRUCTOR_OFF:
+                    inst.deactivateInstructor(in.readUTF());
+                    break;
+                case COURSE_PUT:
+                    putCourse(in.readUTF(), in.readUTF(), in.readInt(), in.readUTF(),
+                            in.readByte(), in.readUTF(), in.readBoolean());
+                    break;
+                case COURSE_OFF: {
+                    Course c = courses.get(in.readUTF());
+                    if (c != null) {
+                        crs.deactivateCourse(c.getCode());
+                        c.setActive(false);
+                    } else {
+                        stats.skipped++;
+                    }
+                    break;
+                }
+                case ENROLL: {
+                    Student s = student(in.readUTF());
+                    Course c = courses.get(in.readUTF());
+                    LocalDate date = LocalDate.ofEpochDay(in.readLong());
+                    // Limits were checked when this was logged, so add directly
+                    if (s != null && c != null && !s.isEnrolledIn(c.getCode(), c.getSemester())) {
+                        s.addEnrollment(new Enrollment(s, c, date));
+                    } else {
+                        stats.skipped++;
+                    }
+                    break;
+                }
+                case UNENROLL: {
+                    Enrollment e = find(in.readUTF(), in.readUTF());
+                    if (e != null) {
+                        e.getStudent().removeEnrollment(e);
+                    } else {
+                        stats.skipped++;
+                    }
+                    break;
+                }
+                case GRADE: {
+                    Enrollment e = find(in.readUTF(), in.readUTF());
+                    int g = in.readByte();
+                    if (e != null) {
+                        e.setGrade(g >= 0 ? Grade.values()[g] : null);
+                    } else {
+                        stats.skipped++;
+                    }
+                    break;
+                }
+                default:
+                    stats.skipped++;
+            }
+        }
+        
+        private void putStudent(String id, String reg, String name, String email, boolean active,
+                LocalDate created) {
+            Student s = student(id);
+            if (s == null) {
+                s = new Student(id, reg, name, email);
+                students.put(id, s);
+            } else {
+                // Keep the same object so its enrollments survive
+                s.setRegNo(reg);
+                s.setFullName(name);
+                s.setEmail(email);
+            }
+            s.setDateCreated(created);
+            s.setActive(active);
+            try {
+                stu.addStudent(s);
+            } catch (IllegalArgumentException e) {
+                stats.skipped++;
+            }
+        }
+        
+        private void putCourse(String code, String title, int credits, String teacherId,
+                int sem, String dept, boolean active) {
+            Instructor teacher = teacherId.isEmpty() ? null : inst.getInstructorById(teacherId);
+            Semester semester = sem >= 0 ? Semester.values()[sem] : null;
+            Course c = courses.get(code);
+            if (c != null && c.getTitle().equals(title) && c.getCredits() == credits
+                    && c.getSemester() == semester && dept.equals(Objects.toString(c.getDepartment(), ""))) {
+                // updateCourse() on the live side: same object, so its enrollments follow
+                c.setInstructor(teacher);
+            } else {
+                // New, or re-added under the same code: a new object, as it was live.
+                // Earlier enrollments keep the course (and credits) they were made with.
+                c = new Course.Builder()
+                        .setCode(CourseCode.of(code))
+                        .setTitle(title)
+                        .setCredits(credits)
+                        .setInstructor(teacher)
+                        .setSemester(semester)
+                        .setDepartment(dept)
+                        .build();
+                courses.put(code, c);
+            }
+            c.setActive(active);
+            crs.updateCourse(c);
+        }
+        
+        private Enrollment find(String studentId, String code) {
+            Student s = student(studentId);
+            Course c = courses.get(code);
+            if (s == null || c == null) {
+                return null;
+            }
+            return s.getEnrollment(c.getCode(), c.getSemester());
+        }
+    }
+}
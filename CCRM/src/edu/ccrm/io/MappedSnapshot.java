@@ -0,0 +1,231 @@
+// src/edu/ccrm/io/MappedSnapshot.java
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.EnrollmentStore;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.StudentSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+// Lazy, read-only view of a snapshot.bin.
+//
+// The file is memory-mapped. Instructors and courses (small) are built up
+// front; a student and its enrollments are only built when looked up by id
+// or regNo through the index tables. Opening checks the footer and the
+// block sums, not the whole file: each block is checked against its sum the
+// first time something in it is read, so a corrupt record shows up when it's
+// looked up. Lookups use absolute reads only, so threads can share one.
+// StudentService caches what it pulls (see StudentService.setSource).
+public class MappedSnapshot implements StudentSource {
+    private final ByteBuffer map;
+    private final Path file;
+    private final BinarySnapshot.Header header;
+    
+    // Block sums, and which blocks have been checked against them. Two
+    // threads may check the same block; harmless, the mapping never changes.
+    private final int[] sums;
+    private final boolean[] checked;
+    private final int sumTable;
+    
+    // Section/table offsets from the footer
+    private final int strStart;
+    private final int strTable;
+    private final int stuTable;
+    private final int idTable;
+    private final int regTable;
+    private final int mask;
+    
+    private final List<Instructor> instructors;
+    private final List<Course> courses;
+    private final Course[] courseNo;
+    private final Map<Long, LocalDate> dates = new ConcurrentHashMap<>();
+    // Where built students' enrollments go
+    private final EnrollmentStore store;
+    
+    // Returns null if the file can't be used lazily (not the current format,
+    // or too big for one mapping); fall back to BinarySnapshot.read then,
+    // which reports a wrong format
+    public static MappedSnapshot open(Path file) throws IOException {
+        return open(file, EnrollmentStore.getInstance());
+    }
+    
+    public static MappedSnapshot open(Path file, EnrollmentStore store) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE || size < BinarySnapshot.HEADER + BinarySnapshot.FOOTER) {
+                return null;
+            }
+            // The mapping outlives the channel
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (map.getInt(4) != BinarySnapshot.VERSION || map.getInt((int) size - 4) != BinarySnapshot.MAGIC) {
+                return null;
+            }
+            return new MappedSnapshot(map, file, store);
+        }
+    }
+    
+    private MappedSnapshot(ByteBuffer map, Path file, EnrollmentStore store) throws IOException {
+        this.map = map;
+        this.file = file;
+        this.store = store;
+        
+        int size = map.limit();
+        long at = map.getLong(size - BinarySnapshot.FOOTER + 48);
+        if (at < BinarySnapshot.HEADER || at > size - BinarySnapshot.FOOTER) {
+            throw BinarySnapshot.corrupt(file);
+        }
+        this.sumTable = (int) at;
+        BinarySnapshot.Footer f = BinarySnapshot.readFooter(map.slice(sumTable, size - sumTable), at, file);
+        this.sums = f.sums;
+        this.checked = new boolean[sums.length];
+        this.strStart = (int) f.strStart;
+        this.strTable = (int) f.strTable;
+        this.stuTable = (int) f.stuTable;
+        this.idTable = (int) f.idTable;
+        this.regTable = (int) f.regTable;
+        this.mask = f.slots - 1;
+        
+        try {
+            check(0, BinarySnapshot.HEADER);
+            this.header = BinarySnapshot.readHeader(new BinarySnapshot.In(map.duplicate()), file);
+            
+            // Retired course versions only back enrollments, see BinarySnapshot
+            int n = header.courses + f.retired;
+            check((int) f.instrStart, header.instructors * 17 + n * 22);
+            BinarySnapshot.In in = at((int) f.instrStart);
+            Instructor[] insts = BinarySnapshot.readInstructors(in, header.instructors, this::str);
+            this.courseNo = BinarySnapshot.readCourses(in, n, insts, this::str);
+            this.instructors = List.of(insts);
+            this.courses = List.of(courseNo).subList(0, header.courses);
+        } catch (IllegalStateException e) {
+            throw BinarySnapshot.corrupt(file);
+        }
+    }
+    
+    public long getCoveredLsn() { return header.coveredLsn; }
+    public List<Instructor> getInstructors() { return instructors; }
+    public List<Course> getCourses() { return courses; }
+    public int getStudentCount() { return header.students; }
+    
+    @Override
+    public Student loadById(String id) {
+        int off = find(idTable, id, 0);
+        return off >= 0 ? build(off) : null;
+    }
+    
+    @Override
+    public Student loadByRegNo(String regNo) {
+        int off = find(regTable, regNo, 1);
+        return off >= 0 ? build(off) : null;
+    }
+    
+    @Override
+    public void forEach(Consumer<Student> sink) {
+        if (header.students == 0) {
+            return;
+        }
+        // Student records are contiguous, so check and walk them in one pass
+        int first = studentOffset(0);
+        check(first, strStart - first);
+        BinarySnapshot.In in = at(first);
+        try {
+            for (int i = 0; i < header.students; i++) {
+                sink.accept(BinarySnapshot.readStudent(in, this::str, courseNo, dates, store));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt snapshot", e);
+        }
+    }
+    
+    // Probes a table for key; field 0 compares ids, 1 regNos.
+    // Returns the student record offset or -1.
+    private int find(int table, String key, int field) {
+        if (key == null) {
+            return -1;
+        }
+        int i = BinarySnapshot.slot(key, mask);
+        while (true) {
+            check(table + i * 4, 4);
+            int no = map.getInt(table + i * 4) - 1;
+            if (no < 0) {
+                return -1;
+            }
+            int off = studentOffset(no);
+            check(off, BinarySnapshot.STUDENT_FIXED);
+            if (key.equals(str(map.getInt(off + field * 4)))) {
+                return off;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+    
+    private Student build(int off) {
+        int n = map.getInt(off + BinarySnapshot.STUDENT_FIXED - 4);
+        check(off + BinarySnapshot.STUDENT_FIXED, n * BinarySnapshot.ENROLL_SIZE);
+        try {
+            return BinarySnapshot.readStudent(at(off), this::str, courseNo, dates, store);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt snapshot", e);
+        }
+    }
+    
+    private int studentOffset(int no) {
+        check(stuTable + no * 8, 8);
+        return (int) map.getLong(stuTable + no * 8);
+    }
+    
+    // Reader positioned at off; duplicate() so concurrent readers don't share a position
+    private BinarySnapshot.In at(int off) {
+        ByteBuffer view = map.duplicate();
+        view.position(off);
+        return new BinarySnapshot.In(view);
+    }
+    
+    private String str(int ref) {
+        if (ref < 0) {
+            return null;
+        }
+        check(strTable + ref * 8, 8);
+        int off = (int) map.getLong(strTable + ref * 8);
+        check(off, 4);
+        byte[] b = new byte[map.getInt(off)];
+        check(off + 4, b.length);
+        map.get(off + 4, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+    
+    // Makes sure the blocks under [from, from + len) match their sums
+    private void check(int from, int len) {
+        if (len == 0) {
+            return;
+        }
+        if (from < 0 || len < 0 || (long) from + len > sumTable) {
+            throw new IllegalStateException("Corrupt snapshot", BinarySnapshot.corrupt(file));
+        }
+        for (int b = from / BinarySnapshot.BLOCK; b <= (from + len - 1) / BinarySnapshot.BLOCK; b++) {
+            if (!checked[b]) {
+                int start = b * BinarySnapshot.BLOCK;
+                CRC32C crc = new CRC32C();
+                crc.update(map.slice(start, Math.min(sumTable - start, BinarySnapshot.BLOCK)));
+                if ((int) crc.getValue() != sums[b]) {
+                    throw new IllegalStateException("Corrupt snapshot", BinarySnapshot.corrupt(file));
+                }
+                checked[b] = true;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+// src/edu/ccrm/io/RestoreReport.java
+package edu.ccrm.io;
+
+import java.nio.file.Path;
+
+// Outcome of a restore: what was verified and copied back, and how fast
+public class RestoreReport {
+    private final String name;
+    private long files;
+    private long bytes;
+    private long nanos;
+    // Where the replaced data directory was moved to (null if there was none)
+    private Path previousData;
+    
+    public RestoreReport(String name) {
+        this.name = name;
+    }
+    
+    synchronized void addFile(long size) {
+        files++;
+        bytes += size;
+    }
+    
+    void finish(long nanos, Path previousData) {
+        this.nanos = nanos;
+        this.previousData = previousData;
+    }
+    
+    public String getName() { return name; }
+    public synchronized long getFiles() { return files; }
+    public synchronized long getBytes() { return bytes; }
+    public long getElapsedNanos() { return nanos; }
+    public Path getPreviousData() { return previousData; }
+    
+    public synchronized double getMBPerSec() {
+        return nanos > 0 ? (bytes / (1024.0 * 1024.0)) * 1e9 / nanos : 0;
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: %d files (%.1f MB) verified and restored in %d ms (%.1f MB/s)",
+                name, files, bytes / (1024.0 * 1024.0), nanos / 1_000_000, getMBPerSec());
+    }
+}
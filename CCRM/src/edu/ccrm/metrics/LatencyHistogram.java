@@ -0,0 +1,111 @@
+// src/edu/ccrm/metrics/LatencyHistogram.java
+package edu.ccrm.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// HDR-style log-linear histogram of nanosecond latencies, ~3% resolution.
+// Values below 64 ns get a bucket each; above that every power of two is split
+// into 32 buckets. Recording is one atomic add, no locks and no allocation.
+// Covers up to 2^40 ns (~18 min); anything longer lands in the last bucket.
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;          // buckets per power of two
+    private static final int LINEAR = SUB * 2;             // exact buckets below this
+    private static final long MAX_VALUE = (1L << 40) - 1;
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    
+    public LatencyHistogram() {
+    }
+    
+    public void record(long nanos) {
+        counts.getAndIncrement(index(Math.min(Math.max(nanos, 0), MAX_VALUE)));
+    }
+    
+    static int index(long v) {
+        if (v < LINEAR) {
+            return (int) v;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return shift * SUB + (int) (v >>> shift);
+    }
+    
+    static long lowest(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int shift = index / SUB - 1;
+        return (long) (index - shift * SUB) << shift;
+    }
+    
+    static long width(int index) {
+        return index < LINEAR ? 1 : 1L << (index / SUB - 1);
+    }
+    
+    // Copy of the counts; concurrent records may or may not make it in
+    public Snapshot snapshot() {
+        long[] c = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            c[i] = counts.get(i);
+        }
+        return new Snapshot(c);
+    }
+    
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+    
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long total;
+        
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+            long t = 0;
+            for (long c : counts) t += c;
+            this.total = t;
+        }
+        
+        public long getCount() {
+            return total;
+        }
+        
+        // Highest value in the bucket holding the q-th quantile (0..1), in ns
+        public long getPercentile(double q) {
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return lowest(i) + width(i) - 1;
+                }
+            }
+            return MAX_VALUE;
+        }
+        
+        // Bucket midpoints, so within the histogram's resolution
+        public double getMean() {
+            if (total == 0) return 0;
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    sum += counts[i] * (lowest(i) + (width(i) - 1) / 2.0);
+                }
+            }
+            return sum / total;
+        }
+        
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return lowest(i) + width(i) - 1;
+                }
+            }
+            return 0;
+        }
+    }
+}
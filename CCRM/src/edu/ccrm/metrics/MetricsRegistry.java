@@ -0,0 +1,79 @@
+// src/edu/ccrm/metrics/MetricsRegistry.java
+package edu.ccrm.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Process-wide set of OperationMetrics, one per "Service.method".
+// Services grab theirs once into static fields, so the lookup is off the hot path.
+// After registerMBeans() each one also shows up in JMX (jconsole, VisualVM) as
+// edu.ccrm:type=Operation,service=...,name=...
+public final class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    
+    // Sorted so listings group by service
+    private final Map<String, OperationMetrics> ops = new ConcurrentSkipListMap<>();
+    private MBeanServer mbeans;
+    
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+    
+    private MetricsRegistry() {
+    }
+    
+    public OperationMetrics operation(String service, String name) {
+        OperationMetrics m = ops.get(service + "." + name);
+        if (m != null) {
+            return m;
+        }
+        synchronized (this) {
+            m = ops.get(service + "." + name);
+            if (m == null) {
+                m = new OperationMetrics(service, name);
+                ops.put(service + "." + name, m);
+                if (mbeans != null) {
+                    register(m);
+                }
+            }
+            return m;
+        }
+    }
+    
+    public List<OperationMetrics> getOperations() {
+        return new ArrayList<>(ops.values());
+    }
+    
+    public void resetAll() {
+        for (OperationMetrics m : ops.values()) {
+            m.reset();
+        }
+    }
+    
+    // Registers everything so far and anything created later
+    public synchronized void registerMBeans() {
+        if (mbeans != null) return;
+        mbeans = ManagementFactory.getPlatformMBeanServer();
+        for (OperationMetrics m : ops.values()) {
+            register(m);
+        }
+    }
+    
+    private void register(OperationMetrics m) {
+        try {
+            ObjectName name = new ObjectName("edu.ccrm:type=Operation,service=" + m.getService()
+                    + ",name=" + m.getOperation());
+            if (!mbeans.isRegistered(name)) {
+                mbeans.registerMBean(m, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not register MBean for " + m + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+// src/edu/ccrm/metrics/OperationMetrics.java
+package edu.ccrm.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Calls, failures and latency of one service method. Used as
+//
+//     long t = OP.start();
+//     try { ... } finally { OP.stop(t); }
+//
+// with OP.failed() in a catch where the method can fail.
+public final class OperationMetrics implements OperationMetricsMBean {
+    private final String service;
+    private final String operation;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    
+    OperationMetrics(String service, String operation) {
+        this.service = service;
+        this.operation = operation;
+    }
+    
+    public long start() {
+        return System.nanoTime();
+    }
+    
+    public void stop(long start) {
+        latency.record(System.nanoTime() - start);
+    }
+    
+    public void failed() {
+        errors.increment();
+    }
+    
+    public LatencyHistogram.Snapshot snapshot() {
+        return latency.snapshot();
+    }
+    
+    @Override
+    public String getService() {
+        return service;
+    }
+    
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+    
+    @Override
+    public long getCount() {
+        return latency.snapshot().getCount();
+    }
+    
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+    
+    @Override
+    public double getMeanMicros() {
+        return latency.snapshot().getMean() / 1000.0;
+    }
+    
+    @Override
+    public double getP50Micros() {
+        return latency.snapshot().getPercentile(0.50) / 1000.0;
+    }
+    
+    @Override
+    public double getP99Micros() {
+        return latency.snapshot().getPercentile(0.99) / 1000.0;
+    }
+    
+    @Override
+    public double getP999Micros() {
+        return latency.snapshot().getPercentile(0.999) / 1000.0;
+    }
+    
+    @Override
+    public double getMaxMicros() {
+        return latency.snapshot().getMax() / 1000.0;
+    }
+    
+    @Override
+    public void reset() {
+        latency.reset();
+        errors.reset();
+    }
+    
+    @Override
+    public String toString() {
+        return service + "." + operation;
+    }
+}
@@ -0,0 +1,16 @@
+// src/edu/ccrm/metrics/OperationMetricsMBean.java
+package edu.ccrm.metrics;
+
+// JMX view of one operation; times are in microseconds
+public interface OperationMetricsMBean {
+    String getService();
+    String getOperation();
+    long getCount();
+    long getErrors();
+    double getMeanMicros();
+    double getP50Micros();
+    double getP99Micros();
+    double getP999Micros();
+    double getMaxMicros();
+    void reset();
+}
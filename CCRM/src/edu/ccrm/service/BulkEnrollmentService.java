@@ -0,0 +1,105 @@
+// src/edu/ccrm/service/BulkEnrollmentService.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.util.CourseCode;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Loads a batch of (regNo, course) pairs in one go.
+// Students and courses are resolved once per distinct key, requests are
+// grouped per student, and groups run in parallel since they never share a
+// student. Every request gets an outcome instead of throwing.
+public class BulkEnrollmentService {
+    private static final int PARALLEL_THRESHOLD = 1_000;
+    
+    private final StudentService stuService;
+    private final CourseService crsService;
+    
+    public BulkEnrollmentService(StudentService stuService, CourseService crsService) {
+        this.stuService = stuService;
+        this.crsService = crsService;
+    }
+    
+    // Fills in the outcome on every request and returns counts per outcome
+    public Map<EnrollRequest.Outcome, Integer> enrollAll(List<EnrollRequest> requests) {
+        Map<String, Student> students = new HashMap<>();
+        Map<String, Course> courses = new HashMap<>();
+        Map<Student, List<EnrollRequest>> groups = new LinkedHashMap<>();
+        
+        for (EnrollRequest r : requests) {
+            Student s = students.computeIfAbsent(r.getRegNo(), stuService::getStudentByRegNo);
+            if (s == null) {
+                r.setOutcome(EnrollRequest.Outcome.STUDENT_NOT_FOUND, null);
+                continue;
+            }
+            
+            Course c = courses.computeIfAbsent(r.getCourseCode(), this::resolveCourse);
+            if (c == null) {
+                boolean badCode = !CourseCode.isValid(r.getCourseCode());
+                r.setOutcome(badCode ? EnrollRequest.Outcome.BAD_CODE 
+                        : EnrollRequest.Outcome.COURSE_NOT_FOUND, null);
+                continue;
+            }
+            
+            groups.computeIfAbsent(s, x -> new ArrayList<>()).add(r);
+        }
+        
+        // Each group only touches its own student, so groups can run side by side
+        List<Map.Entry<Student, List<EnrollRequest>>> work = new ArrayList<>(groups.entrySet());
+        if (requests.size() >= PARALLEL_THRESHOLD) {
+            work.parallelStream().forEach(g -> enrollGroup(g.getKey(), g.getValue(), courses));
+        } else {
+            work.forEach(g -> enrollGroup(g.getKey(), g.getValue(), courses));
+        }
+        
+        Map<EnrollRequest.Outcome, Integer> counts = new EnumMap<>(EnrollRequest.Outcome.class);
+        for (EnrollRequest r : requests) {
+            counts.merge(r.getOutcome(), 1, Integer::sum);
+        }
+        return counts;
+    }
+    
+    private void enrollGroup(Student s, List<EnrollRequest> group, Map<String, Course> courses) {
+        for (EnrollRequest r : group) {
+            Course c = courses.get(r.getCourseCode());
+            
+            // Pre-check so the common rejections don't pay for an exception
+            if (s.isEnrolledIn(c.getCode(), c.getSemester())) {
+                r.setOutcome(EnrollRequest.Outcome.DUPLICATE, null);
+                continue;
+            }
+            int current = s.getSemesterCredits(c.getSemester());
+            if (current + c.getCredits() > StudentService.MAX_CREDITS) {
+                r.setOutcome(EnrollRequest.Outcome.CREDIT_LIMIT, 
+                        current + " + " + c.getCredits() + " > " + StudentService.MAX_CREDITS);
+                continue;
+            }
+            
+            // The service re-checks atomically in case someone else got in first
+            try {
+                stuService.enrollStudentInCourse(s, c);
+                r.setOutcome(EnrollRequest.Outcome.ENROLLED, null);
+            } catch (DuplicateEnrollmentException e) {
+                r.setOutcome(EnrollRequest.Outcome.DUPLICATE, e.getMessage());
+            } catch (MaxCreditLimitExceededException e) {
+                r.setOutcome(EnrollRequest.Outcome.CREDIT_LIMIT, e.getMessage());
+            }
+        }
+    }
+    
+    private Course resolveCourse(String code) {
+        if (!CourseCode.isValid(code)) {
+            return null;
+        }
+        return crsService.getCourseByCode(CourseCode.of(code));
+    }
+}
@@ -4,79 +4,314 @@ package edu.ccrm.service;
 import edu.ccrm.domain.Course;
 import edu.ccrm.domain.Instructor;
 import edu.ccrm.domain.Semester;
+import edu.ccrm.events.SearchEvent;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
 import edu.ccrm.util.CourseCode;
+import edu.ccrm.util.IntMap;
+import edu.ccrm.util.NGramIndex;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class CourseService implements Searchable<Course> {
-    private List<Course> courses;
+    // Primary index on the packed code, keeps insertion order for listings
+    private IntMap<Course> courses;
+    
+    // Secondary buckets, only hold active courses
+    private Map<Semester, Set<Course>> bySemester;
+    private Map<String, Set<Course>> byInstructor;
+    private Map<String, Set<Course>> byDept;
+    
+    // Title/code/department text index for search()
+    private NGramIndex<Course> text;
+    
+    // Keys each course was bucketed under, so we can unbucket after setters ran
+    private Map<CourseCode, IndexKeys> indexed;
+    
+    private MutationListener listener;
+    
+    // Per-operation timings, shown under Statistics and over JMX
+    private static final OperationMetrics ADD = op("addCourse");
+    private static final OperationMetrics BY_CODE = op("getCourseByCode");
+    private static final OperationMetrics LIST = op("getAllCourses");
+    private static final OperationMetrics RECORDS = op("getCourseRecords");
+    private static final OperationMetrics ITERATE = op("iterateCourses");
+    private static final OperationMetrics UPDATE = op("updateCourse");
+    private static final OperationMetrics DEACTIVATE = op("deactivateCourse");
+    private static final OperationMetrics BY_INSTRUCTOR = op("getCoursesByInstructor");
+    private static final OperationMetrics BY_SEMESTER = op("getCoursesBySemester");
+    private static final OperationMetrics BY_DEPT = op("getCoursesByDepartment");
+    private static final OperationMetrics SEARCH = op("search");
+    private static final OperationMetrics EXISTS = op("courseExists");
+    private static final OperationMetrics ACTIVE_COUNT = op("getActiveCount");
+    
+    private static OperationMetrics op(String name) {
+        return MetricsRegistry.getInstance().operation("CourseService", name);
+    }
     
     public CourseService() {
-        this.courses = new ArrayList<>();
+        this.courses = new IntMap<>();
+        this.bySemester = new EnumMap<>(Semester.class);
+        this.byInstructor = new HashMap<>();
+        this.byDept = new HashMap<>();
+        this.indexed = new HashMap<>();
+        this.text = new NGramIndex<>();
+    }
+    
+    public void setMutationListener(MutationListener l) {
+        this.listener = l;
     }
     
     public void addCourse(Course c) {
-        courses.add(c);
+        long t = ADD.start();
+        try {
+            putCourse(c);
+        } catch (RuntimeException e) {
+            ADD.failed();
+            throw e;
+        } finally {
+            ADD.stop(t);
+        }
+    }
+    
+    private void putCourse(Course c) {
+        if (listener != null) {
+            listener.beforeChange();
+        }
+        Course old = courses.put(c.getCode().pack(), c);
+        if (old != null) {
+            unindex(old);
+        }
+        if (c.isActive()) {
+            index(c);
+        }
+        if (listener != null) {
+            listener.courseSaved(c);
+        }
     }
     
     public Course getCourseByCode(CourseCode code) {
-        return courses.stream()
-                .filter(c -> c.getCode().equals(code) && c.isActive())
-                .findFirst()
-                .orElse(null);
+        long t = BY_CODE.start();
+        try {
+            return activeCourse(code);
+        } finally {
+            BY_CODE.stop(t);
+        }
+    }
+    
+    // getCourseByCode for the other methods, so they don't count as calls
+    private Course activeCourse(CourseCode code) {
+        if (code == null) return null;
+        Course c = courses.get(code.pack());
+        return c != null && c.isActive() ? c : null;
     }
     
     public List<Course> getAllCourses() {
-        return courses.stream()
-                .filter(Course::isActive)
-                .collect(Collectors.toList());
+        long t = LIST.start();
+        try {
+            return courses.values().stream()
+                    .filter(Course::isActive)
+                    .collect(Collectors.toList());
+        } finally {
+            LIST.stop(t);
+        }
+    }
+    
+    // Active courses in listing order, read lazily with no copy (see PageCursor)
+    public Iterator<Course> iterateCourses() {
+        long t = ITERATE.start();
+        try {
+            return courses.values().stream()
+                    .filter(Course::isActive)
+                    .iterator();
+        } finally {
+            ITERATE.stop(t);
+        }
+    }
+    
+    // Every record including deactivated ones, for snapshots
+    public List<Course> getCourseRecords() {
+        long t = RECORDS.start();
+        try {
+            return new ArrayList<>(courses.values());
+        } finally {
+            RECORDS.stop(t);
+        }
     }
     
     public void updateCourse(Course c) {
-        // Remove old, add new
-        courses.removeIf(old -> old.getCode().equals(c.getCode()));
-        courses.add(c);
+        long t = UPDATE.start();
+        try {
+            // Replace in place and re-bucket
+            unindex(c);
+            putCourse(c);
+        } catch (RuntimeException e) {
+            UPDATE.failed();
+            throw e;
+        } finally {
+            UPDATE.stop(t);
+        }
     }
     
     public void deactivateCourse(CourseCode code) {
-        Course c = getCourseByCode(code);
-        if (c != null) {
-            c.setActive(false);
+        long t = DEACTIVATE.start();
+        try {
+            Course c = activeCourse(code);
+            if (c != null) {
+                if (listener != null) {
+                    listener.beforeChange();
+                }
+                c.setActive(false);
+                unindex(c);
+                if (listener != null) {
+                    listener.courseDeactivated(c);
+                }
+            }
+        } finally {
+            DEACTIVATE.stop(t);
         }
     }
     
     public List<Course> getCoursesByInstructor(Instructor inst) {
-        return courses.stream()
-                .filter(c -> c.isActive() && c.getInstructor().equals(inst))
-                .collect(Collectors.toList());
+        long t = BY_INSTRUCTOR.start();
+        try {
+            if (inst == null) {
+                return new ArrayList<>();
+            }
+            return fromBucket(byInstructor.get(inst.getId()));
+        } finally {
+            BY_INSTRUCTOR.stop(t);
+        }
     }
     
     public List<Course> getCoursesBySemester(Semester sem) {
-        return courses.stream()
-                .filter(c -> c.isActive() && c.getSemester() == sem)
-                .collect(Collectors.toList());
+        long t = BY_SEMESTER.start();
+        try {
+            return fromBucket(bySemester.get(sem));
+        } finally {
+            BY_SEMESTER.stop(t);
+        }
+    }
+    
+    public List<Course> getCoursesByDepartment(String dept) {
+        long t = BY_DEPT.start();
+        try {
+            return fromBucket(byDept.get(dept));
+        } finally {
+            BY_DEPT.stop(t);
+        }
     }
     
     @Override
     public List<Course> search(String query) {
-        String term = query.toLowerCase();
-        return courses.stream()
-                .filter(c -> c.isActive() && 
-                       (c.getTitle().toLowerCase().contains(term) ||
-                        c.getCode().toString().toLowerCase().contains(term) ||
-                        c.getDepartment().toLowerCase().contains(term)))
-                .collect(Collectors.toList());
+        long t = SEARCH.start();
+        try {
+            SearchEvent event = new SearchEvent();
+            event.begin();
+            List<Course> found = text.search(query).stream()
+                    .filter(Course::isActive)
+                    .collect(Collectors.toList());
+            event.finish("courses", query, found.size());
+            return found;
+        } finally {
+            SEARCH.stop(t);
+        }
     }
     
     // Helper to check if course exists
     public boolean courseExists(CourseCode code) {
-        return getCourseByCode(code) != null;
+        long t = EXISTS.start();
+        try {
+            return activeCourse(code) != null;
+        } finally {
+            EXISTS.stop(t);
+        }
     }
     
     // Get active course count
     public int getActiveCount() {
-        return (int) courses.stream().filter(Course::isActive).count();
+        long t = ACTIVE_COUNT.start();
+        try {
+            return (int) courses.values().stream().filter(Course::isActive).count();
+        } finally {
+            ACTIVE_COUNT.stop(t);
+        }
+    }
+    
+    private void index(Course c) {
+        IndexKeys k = new IndexKeys(c);
+        indexed.put(c.getCode(), k);
+        
+        bucket(bySemester, k.sem).add(c);
+        bucket(byInstructor, k.instructorId).add(c);
+        bucket(byDept, k.dept).add(c);
+        text.put(c, c.getTitle(), c.getCode().toString(), c.getDepartment());
+    }
+    
+    private void unindex(Course c) {
+        IndexKeys k = indexed.get(c.getCode());
+        if (k == null || k.course != c) {
+            return;
+        }
+        indexed.remove(c.getCode());
+        
+        unbucket(bySemester, k.sem, c);
+        unbucket(byInstructor, k.instructorId, c);
+        unbucket(byDept, k.dept, c);
+        text.remove(c);
+    }
+    
+    private static <K> Set<Course> bucket(Map<K, Set<Course>> map, K key) {
+        if (key == null) {
+            return new LinkedHashSet<>(); // not bucketed
+        }
+        return map.computeIfAbsent(key, x -> new LinkedHashSet<>());
+    }
+    
+    private static <K> void unbucket(Map<K, Set<Course>> map, K key, Course c) {
+        if (key == null) return;
+        Set<Course> set = map.get(key);
+        if (set != null) {
+            set.remove(c);
+            if (set.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+    
+    // Copy out just the bucket; re-check active in case setActive was called directly
+    private static List<Course> fromBucket(Set<Course> set) {
+        if (set == null) {
+            return new ArrayList<>();
+        }
+        List<Course> result = new ArrayList<>(set.size());
+        for (Course c : set) {
+            if (c.isActive()) {
+                result.add(c);
+            }
+        }
+        return result;
+    }
+    
+    private static class IndexKeys {
+        final Course course;
+        final Semester sem;
+        final String instructorId;
+        final String dept;
+        
+        IndexKeys(Course c) {
+            this.course = c;
+            this.sem = c.getSemester();
+            this.instructorId = c.getInstructor() != null ? c.getInstructor().getId() : null;
+            this.dept = c.getDepartment();
+        }
     }
-}
\ No newline at end of file
+}
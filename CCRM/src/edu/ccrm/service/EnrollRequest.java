@@ -0,0 +1,43 @@
+// src/edu/ccrm/service/EnrollRequest.java
+package edu.ccrm.service;
+
+// One (regNo, course code) pair for bulk enrollment, plus its outcome once run
+public class EnrollRequest {
+    public enum Outcome {
+        ENROLLED,
+        STUDENT_NOT_FOUND,
+        COURSE_NOT_FOUND,
+        BAD_CODE,
+        DUPLICATE,
+        CREDIT_LIMIT
+    }
+    
+    private final String regNo;
+    private final String courseCode;
+    private Outcome outcome;
+    private String message;
+    
+    public EnrollRequest(String regNo, String courseCode) {
+        this.regNo = regNo;
+        this.courseCode = courseCode;
+    }
+    
+    public String getRegNo() { return regNo; }
+    public String getCourseCode() { return courseCode; }
+    public Outcome getOutcome() { return outcome; }
+    public String getMessage() { return message; }
+    
+    void setOutcome(Outcome o, String msg) {
+        this.outcome = o;
+        this.message = msg;
+    }
+    
+    public boolean isEnrolled() {
+        return outcome == Outcome.ENROLLED;
+    }
+    
+    @Override
+    public String toString() {
+        return regNo + " -> " + courseCode + ": " + outcome + (message != null ? " (" + message + ")" : "");
+    }
+}
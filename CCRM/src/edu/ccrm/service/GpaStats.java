@@ -0,0 +1,119 @@
+// src/edu/ccrm/service/GpaStats.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Mergeable GPA accumulator: band counts, a 0.01-wide histogram for
+// mean/percentiles, and a bounded min-heap holding the current top N.
+// One instance per fork-join task, combined at the end.
+public class GpaStats {
+    static final Comparator<Student> BY_GPA = Comparator
+            .comparingDouble(Student::calculateGPA)
+            .thenComparing(Student::getRegNo, Comparator.reverseOrder());
+    
+    private static final int BINS = 1001; // 0.00 .. 10.00
+    
+    private final int topN;
+    private final long[] hist = new long[BINS];
+    private final PriorityQueue<Student> top;
+    
+    private long excellent; // 9.0+
+    private long good;      // 7.5 - 8.9
+    private long average;   // 6.0 - 7.4
+    private long poor;      // < 6.0
+    private long none;      // no GPA yet
+    private double sum;
+    
+    public GpaStats(int topN) {
+        this.topN = topN;
+        this.top = new PriorityQueue<>(Math.max(1, topN + 1), BY_GPA);
+    }
+    
+    public void accept(Student s) {
+        double gpa = s.calculateGPA();
+        
+        if (gpa == 0) {
+            none++;
+            return;
+        }
+        if (gpa >= 9.0) excellent++;
+        else if (gpa >= 7.5) good++;
+        else if (gpa >= 6.0) average++;
+        else poor++;
+        
+        sum += gpa;
+        hist[(int) Math.round(gpa * 100)]++;
+        offer(s);
+    }
+    
+    public GpaStats combine(GpaStats other) {
+        for (int i = 0; i < BINS; i++) {
+            hist[i] += other.hist[i];
+        }
+        excellent += other.excellent;
+        good += other.good;
+        average += other.average;
+        poor += other.poor;
+        none += other.none;
+        sum += other.sum;
+        for (Student s : other.top) {
+            offer(s);
+        }
+        return this;
+    }
+    
+    private void offer(Student s) {
+        if (topN <= 0) return;
+        if (top.size() < topN) {
+            top.add(s);
+        } else if (BY_GPA.compare(s, top.peek()) > 0) {
+            top.poll();
+            top.add(s);
+        }
+    }
+    
+    public long getExcellent() { return excellent; }
+    public long getGood() { return good; }
+    public long getAverage() { return average; }
+    public long getPoor() { return poor; }
+    public long getNoGpa() { return none; }
+    
+    // Students that have a GPA
+    public long getGradedCount() {
+        return excellent + good + average + poor;
+    }
+    
+    public double getMean() {
+        long n = getGradedCount();
+        return n > 0 ? sum / n : 0.0;
+    }
+    
+    // p in [0, 100], resolved to the nearest 0.01 of GPA
+    public double getPercentile(double p) {
+        long n = getGradedCount();
+        if (n == 0) return 0.0;
+        
+        long rank = (long) Math.ceil(p / 100.0 * n);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        for (int i = 0; i < BINS; i++) {
+            seen += hist[i];
+            if (seen >= rank) {
+                return i / 100.0;
+            }
+        }
+        return 10.0;
+    }
+    
+    // Best first
+    public List<Student> getTopStudents() {
+        List<Student> list = new ArrayList<>(top);
+        list.sort(BY_GPA.reversed());
+        return list;
+    }
+}
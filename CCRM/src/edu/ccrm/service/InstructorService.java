@@ -0,0 +1,112 @@
+// src/edu/ccrm/service/InstructorService.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.util.NGramIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class InstructorService implements Searchable<Instructor> {
+    // Primary index (id -> instructor), keeps insertion order for listings
+    private Map<String, Instructor> teachers;
+    private Map<String, List<Instructor>> byDept;
+    private NGramIndex<Instructor> text;
+    
+    private MutationListener listener;
+    
+    public InstructorService() {
+        this.teachers = new LinkedHashMap<>();
+        this.byDept = new HashMap<>();
+        this.text = new NGramIndex<>();
+    }
+    
+    public void setMutationListener(MutationListener l) {
+        this.listener = l;
+    }
+    
+    public void addInstructor(Instructor i) {
+        if (listener != null) {
+            listener.beforeChange();
+        }
+        Instructor old = teachers.put(i.getId(), i);
+        if (old != null) {
+            unindex(old);
+        }
+        byDept.computeIfAbsent(i.getDepartment(), d -> new ArrayList<>()).add(i);
+        text.put(i, i.getName(), i.getEmail(), i.getDepartment());
+        if (listener != null) {
+            listener.instructorSaved(i);
+        }
+    }
+    
+    public Instructor getInstructorById(String id) {
+        Instructor i = teachers.get(id);
+        return i != null && i.isActive() ? i : null;
+    }
+    
+    public List<Instructor> getAllInstructors() {
+        return teachers.values().stream()
+                .filter(Instructor::isActive)
+                .collect(Collectors.toList());
+    }
+    
+    // Every record including deactivated ones, for snapshots
+    public List<Instructor> getInstructorRecords() {
+        return new ArrayList<>(teachers.values());
+    }
+    
+    public List<Instructor> getInstructorsByDepartment(String dept) {
+        List<Instructor> list = byDept.get(dept);
+        if (list == null) {
+            return new ArrayList<>();
+        }
+        return list.stream()
+                .filter(Instructor::isActive)
+                .collect(Collectors.toList());
+    }
+    
+    public void deactivateInstructor(String id) {
+        Instructor i = getInstructorById(id);
+        if (i != null) {
+            if (listener != null) {
+                listener.beforeChange();
+            }
+            i.setActive(false);
+            unindex(i);
+            if (listener != null) {
+                listener.instructorDeactivated(i);
+            }
+        }
+    }
+    
+    @Override
+    public List<Instructor> search(String query) {
+        return text.search(query).stream()
+                .filter(Instructor::isActive)
+                .collect(Collectors.toList());
+    }
+    
+    public boolean instructorExists(String id) {
+        return getInstructorById(id) != null;
+    }
+    
+    public int getInstructorCount() {
+        return (int) teachers.values().stream().filter(Instructor::isActive).count();
+    }
+    
+    private void unindex(Instructor i) {
+        List<Instructor> list = byDept.get(i.getDepartment());
+        if (list != null) {
+            list.remove(i);
+            if (list.isEmpty()) {
+                byDept.remove(i.getDepartment());
+            }
+        }
+        text.remove(i);
+    }
+}
@@ -0,0 +1,21 @@
+// src/edu/ccrm/service/MutationListener.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.GradeListener;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Student;
+
+// Hook for every successful change the services make (used by the journal).
+// beforeChange() runs before each of them is applied.
+public interface MutationListener extends GradeListener {
+    void studentSaved(Student s);
+    void studentDeactivated(Student s);
+    void instructorSaved(Instructor i);
+    void instructorDeactivated(Instructor i);
+    void courseSaved(Course c);
+    void courseDeactivated(Course c);
+    void enrolled(Enrollment e);
+    void unenrolled(Enrollment e);
+}
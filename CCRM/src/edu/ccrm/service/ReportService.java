@@ -0,0 +1,32 @@
+// src/edu/ccrm/service/ReportService.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ReportService {
+    // Below this a parallel stream costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 10_000;
+    
+    private final StudentService stuService;
+    
+    public ReportService(StudentService stuService) {
+        this.stuService = stuService;
+    }
+    
+    // Histogram, mean, percentiles and top N in a single pass
+    public GpaStats gpaStats(int topN) {
+        List<Student> students = stuService.getAllStudents();
+        Stream<Student> stream = students.size() >= PARALLEL_THRESHOLD 
+                ? students.parallelStream() 
+                : students.stream();
+        
+        return stream.collect(() -> new GpaStats(topN), GpaStats::accept, GpaStats::combine);
+    }
+    
+    public List<Student> topStudents(int n) {
+        return gpaStats(n).getTopStudents();
+    }
+}
@@ -4,118 +4,540 @@ package edu.ccrm.service;
 import edu.ccrm.domain.Student;
 import edu.ccrm.domain.Enrollment;
 import edu.ccrm.domain.Course;
+import edu.ccrm.domain.EnrollmentStore;
+import edu.ccrm.events.EnrollmentEvent;
+import edu.ccrm.events.SearchEvent;
 import edu.ccrm.exception.DuplicateEnrollmentException;
 import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.metrics.MetricsRegistry;
+import edu.ccrm.metrics.OperationMetrics;
+import edu.ccrm.util.NGramIndex;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 public class StudentService implements Searchable<Student> {
-    private List<Student> students;
-    private static final int MAX_CREDITS = 18;
+    // Primary index (id -> student), keeps insertion order for listings
+    private Map<String, Student> students;
+    // Unique secondary index, only holds active students
+    private Map<String, Student> byRegNo;
+    // Name/regNo/email text index for search()
+    private NGramIndex<Student> text;
+    public static final int MAX_CREDITS = 18;
+    private static final int STRIPES = 64; // power of two
+    
+    // Concurrent mode only (null otherwise): registry writes and search share
+    // a read/write lock, enrollments lock a stripe picked by student id
+    private final ReentrantReadWriteLock registry;
+    private final Object[] stripes;
+    
+    // Where our students' enrollments live, so services don't share its locks
+    private final EnrollmentStore store = new EnrollmentStore();
+    
+    private volatile MutationListener listener;
+    // Lazy mode: records not in 'students' yet are pulled from here on first use
+    private volatile StudentSource source;
+    
+    // Per-operation timings, shown under Statistics and over JMX
+    private static final OperationMetrics ADD = op("addStudent");
+    private static final OperationMetrics BY_ID = op("getStudentById");
+    private static final OperationMetrics RECORD = op("getStudentRecord");
+    private static final OperationMetrics BY_REG_NO = op("getStudentByRegNo");
+    private static final OperationMetrics LIST = op("getAllStudents");
+    private static final OperationMetrics RECORDS = op("getStudentRecords");
+    private static final OperationMetrics ITERATE = op("iterateStudents");
+    private static final OperationMetrics UPDATE = op("updateStudent");
+    private static final OperationMetrics DEACTIVATE = op("deactivateStudent");
+    private static final OperationMetrics ENROLL = op("enrollStudentInCourse");
+    private static final OperationMetrics UNENROLL = op("unenrollStudentFromCourse");
+    private static final OperationMetrics SEARCH = op("search");
+    private static final OperationMetrics COUNT = op("getStudentCount");
+    private static final OperationMetrics EXISTS = op("studentExists");
+    private static final OperationMetrics WITH_GPA = op("getStudentsWithGPA");
+    
+    private static OperationMetrics op(String name) {
+        return MetricsRegistry.getInstance().operation("StudentService", name);
+    }
     
     public StudentService() {
-        this.students = new ArrayList<>();
+        this(false);
+    }
+    
+    // concurrent = true makes the service safe to share between threads.
+    // Id/regNo lookups and GPA reads stay lock-free; listings lose insertion order.
+    public StudentService(boolean concurrent) {
+        if (concurrent) {
+            this.students = new ConcurrentHashMap<>();
+            this.byRegNo = new ConcurrentHashMap<>();
+            this.registry = new ReentrantReadWriteLock();
+            this.stripes = new Object[STRIPES];
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Object();
+            }
+        } else {
+            this.students = new LinkedHashMap<>();
+            this.byRegNo = new HashMap<>();
+            this.registry = null;
+            this.stripes = null;
+        }
+        this.text = new NGramIndex<>();
+    }
+    
+    public boolean isConcurrent() {
+        return stripes != null;
+    }
+    
+    // Loaders build students straight into this (see BinarySnapshot.read)
+    public EnrollmentStore getEnrollmentStore() {
+        return store;
+    }
+    
+    // Also hooked into every student's grade changes
+    public void setMutationListener(MutationListener l) {
+        this.listener = l;
+        for (Student s : students.values()) {
+            s.setGradeListener(l);
+        }
+    }
+    
+    // Lookups by id/regNo that miss fall back to src and cache the result.
+    // Listings, search and counts pull in everything first, then drop src.
+    public void setSource(StudentSource src) {
+        this.source = src;
     }
     
     public void addStudent(Student s) {
-        students.add(s);
+        long t = ADD.start();
+        try {
+            lockRegistry();
+            try {
+                putStudent(s);
+            } finally {
+                unlockRegistry();
+            }
+        } catch (RuntimeException e) {
+            ADD.failed();
+            throw e;
+        } finally {
+            ADD.stop(t);
+        }
+    }
+    
+    private void putStudent(Student s) {
+        Student owner = activeByRegNo(s.getRegNo());
+        if (owner != null && !owner.getId().equals(s.getId())) {
+            throw new IllegalArgumentException("Reg number already in use: " + s.getRegNo());
+        }
+        if (listener != null) {
+            listener.beforeChange();
+        }
+        
+        s.setEnrollmentStore(store);
+        Student old = students.put(s.getId(), s);
+        unindex(old);
+        if (s.isActive()) {
+            byRegNo.put(s.getRegNo(), s);
+            text.put(s, s.getName(), s.getRegNo(), s.getEmail());
+        }
+        
+        s.setGradeListener(listener);
+        if (listener != null) {
+            listener.studentSaved(s);
+        }
     }
     
     public Student getStudentById(String id) {
-        return students.stream()
-                .filter(s -> s.getId().equals(id) && s.isActive())
-                .findFirst()
-                .orElse(null);
+        long t = BY_ID.start();
+        try {
+            Student s = record(id);
+            return s != null && s.isActive() ? s : null;
+        } finally {
+            BY_ID.stop(t);
+        }
+    }
+    
+    // Like getStudentById but also finds deactivated records
+    public Student getStudentRecord(String id) {
+        long t = RECORD.start();
+        try {
+            return record(id);
+        } finally {
+            RECORD.stop(t);
+        }
     }
     
     public Student getStudentByRegNo(String reg) {
-        return students.stream()
-                .filter(s -> s.getRegNo().equals(reg) && s.isActive())
-                .findFirst()
-                .orElse(null);
+        long t = BY_REG_NO.start();
+        try {
+            return activeByRegNo(reg);
+        } finally {
+            BY_REG_NO.stop(t);
+        }
+    }
+    
+    // Lookup bodies, shared with the other methods so they don't count as calls
+    private Student record(String id) {
+        Student s = students.get(id);
+        if (s == null && source != null) {
+            s = fetch(id);
+        }
+        return s;
+    }
+    
+    private Student activeByRegNo(String reg) {
+        Student s = byRegNo.get(reg);
+        if (s == null && source != null) {
+            s = fetchByRegNo(reg);
+        }
+        // Entry can go stale if regNo/active was changed on the object directly
+        if (s == null || !s.isActive() || !s.getRegNo().equals(reg)) {
+            return null;
+        }
+        return s;
     }
     
     public List<Student> getAllStudents() {
-        return students.stream()
-                .filter(Student::isActive)
-                .collect(Collectors.toList());
+        long t = LIST.start();
+        try {
+            loadAll();
+            return students.values().stream()
+                    .filter(Student::isActive)
+                    .collect(Collectors.toList());
+        } finally {
+            LIST.stop(t);
+        }
+    }
+    
+    // Active students in listing order, read lazily off the index with no
+    // copy; for paging through big registries (see PageCursor)
+    public Iterator<Student> iterateStudents() {
+        long t = ITERATE.start();
+        try {
+            loadAll();
+            return students.values().stream()
+                    .filter(Student::isActive)
+                    .iterator();
+        } finally {
+            ITERATE.stop(t);
+        }
+    }
+    
+    // Every record including deactivated ones, for snapshots
+    public List<Student> getStudentRecords() {
+        long t = RECORDS.start();
+        try {
+            loadAll();
+            return new ArrayList<>(students.values());
+        } finally {
+            RECORDS.stop(t);
+        }
     }
     
     public void updateStudent(Student s) {
-        // Replace student in list
-        students.removeIf(old -> old.getId().equals(s.getId()));
-        students.add(s);
+        long t = UPDATE.start();
+        try {
+            // Replace in place, same slot in the primary index
+            lockRegistry();
+            try {
+                putStudent(s);
+            } finally {
+                unlockRegistry();
+            }
+        } catch (RuntimeException e) {
+            UPDATE.failed();
+            throw e;
+        } finally {
+            UPDATE.stop(t);
+        }
     }
     
     public void deactivateStudent(String id) {
-        Student s = getStudentById(id);
+        long t = DEACTIVATE.start();
+        try {
+            lockRegistry();
+            try {
+                Student s = record(id);
+                if (s != null && s.isActive()) {
+                    if (listener != null) {
+                        listener.beforeChange();
+                    }
+                    s.setActive(false);
+                    unindex(s);
+                    if (listener != null) {
+                        listener.studentDeactivated(s);
+                    }
+                }
+            } finally {
+                unlockRegistry();
+            }
+        } finally {
+            DEACTIVATE.stop(t);
+        }
+    }
+    
+    private void lockRegistry() {
+        if (registry != null) registry.writeLock().lock();
+    }
+    
+    private void unlockRegistry() {
+        if (registry != null) registry.writeLock().unlock();
+    }
+    
+    private Student fetch(String id) {
+        lockRegistry();
+        try {
+            Student s = students.get(id);
+            StudentSource src = source;
+            if (s == null && src != null) {
+                s = src.loadById(id);
+                if (s != null) {
+                    cache(s);
+                }
+            }
+            return s;
+        } finally {
+            unlockRegistry();
+        }
+    }
+    
+    private Student fetchByRegNo(String reg) {
+        lockRegistry();
+        try {
+            Student s = byRegNo.get(reg);
+            StudentSource src = source;
+            if (s == null && src != null) {
+                s = src.loadByRegNo(reg);
+                if (s != null) {
+                    // Already pulled in (and maybe changed since)? Ours wins
+                    Student cached = students.get(s.getId());
+                    if (cached != null) {
+                        return cached;
+                    }
+                    cache(s);
+                }
+            }
+            return s;
+        } finally {
+            unlockRegistry();
+        }
+    }
+    
+    // Adds a record pulled from the source; not a mutation, so no listener call
+    private void cache(Student s) {
+        students.put(s.getId(), s);
+        if (s.isActive()) {
+            byRegNo.put(s.getRegNo(), s);
+            text.put(s, s.getName(), s.getRegNo(), s.getEmail());
+        }
+        s.setGradeListener(listener);
+    }
+    
+    // Pulls in every record the source still holds, then drops the source
+    private void loadAll() {
+        if (source == null) return;
+        lockRegistry();
+        try {
+            StudentSource src = source;
+            if (src == null) return;
+            
+            Map<String, Student> all = isConcurrent() ? students : new LinkedHashMap<>();
+            src.forEach(s -> {
+                Student cached = students.get(s.getId());
+                if (cached == null) {
+                    cache(s);
+                    cached = s;
+                }
+                all.put(cached.getId(), cached);
+            });
+            if (all != students) {
+                // Stored order first, then records added since
+                for (Student s : students.values()) {
+                    all.putIfAbsent(s.getId(), s);
+                }
+                students = all;
+            }
+            source = null;
+        } finally {
+            unlockRegistry();
+        }
+    }
+    
+    // Drop the regNo entry, but only if it still points at this student
+    private void unindex(Student s) {
         if (s != null) {
-            s.setActive(false);
+            byRegNo.remove(s.getRegNo(), s);
+            text.remove(s);
         }
     }
     
-    public void enrollStudentInCourse(Student s, Course c) 
+    public void enrollStudentInCourse(Student s, Course c)
             throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        long t = ENROLL.start();
+        EnrollmentEvent event = new EnrollmentEvent();
+        event.begin();
+        try {
+            if (stripes == null) {
+                doEnroll(s, c, event);
+                return;
+            }
+            // Duplicate check, credit check and add must be one atomic step per student
+            synchronized (stripeFor(s)) {
+                doEnroll(s, c, event);
+            }
+        } catch (DuplicateEnrollmentException e) {
+            ENROLL.failed();
+            event.setOutcome(EnrollmentEvent.DUPLICATE);
+            throw e;
+        } catch (MaxCreditLimitExceededException e) {
+            ENROLL.failed();
+            event.setOutcome(EnrollmentEvent.CREDIT_LIMIT);
+            throw e;
+        } catch (RuntimeException e) {
+            ENROLL.failed();
+            event.setOutcome(EnrollmentEvent.FAILED);
+            throw e;
+        } finally {
+            ENROLL.stop(t);
+            event.finish(s, c);
+        }
+    }
+    
+    private void doEnroll(Student s, Course c, EnrollmentEvent event)
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        long v = event.startValidation();
+        try {
+            validateEnroll(s, c);
+        } finally {
+            event.endValidation(v);
+        }
         
-        // Check if already enrolled
-        boolean alreadyEnrolled = s.getEnrollments().stream()
-                .anyMatch(e -> e.getCourse().getCode().equals(c.getCode()) 
-                        && e.getCourse().getSemester() == c.getSemester());
+        if (listener != null) {
+            listener.beforeChange();
+        }
         
-        if (alreadyEnrolled) {
+        // Add enrollment
+        Enrollment e = new Enrollment(s, c);
+        s.addEnrollment(e);
+        if (listener != null) {
+            listener.enrolled(e);
+        }
+    }
+    
+    private void validateEnroll(Student s, Course c)
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        // Check if already enrolled
+        if (s.isEnrolledIn(c.getCode(), c.getSemester())) {
             throw new DuplicateEnrollmentException("Already enrolled in this course");
         }
         
         // Check credit limit
-        int currentCredits = s.getEnrollments().stream()
-                .filter(e -> e.getCourse().getSemester() == c.getSemester())
-                .mapToInt(e -> e.getCourse().getCredits())
-                .sum();
+        int currentCredits = s.getSemesterCredits(c.getSemester());
         
         if (currentCredits + c.getCredits() > MAX_CREDITS) {
             throw new MaxCreditLimitExceededException(
-                    "Too many credits. Current: " + currentCredits + 
-                    ", Adding: " + c.getCredits() + 
+                    "Too many credits. Current: " + currentCredits +
+                    ", Adding: " + c.getCredits() +
                     ", Max: " + MAX_CREDITS);
         }
-        
-        // Add enrollment
-        Enrollment e = new Enrollment(s, c);
-        s.addEnrollment(e);
     }
     
     public void unenrollStudentFromCourse(Student s, Course c) {
-        s.getEnrollments().removeIf(e -> 
-                e.getCourse().getCode().equals(c.getCode()) && 
-                e.getCourse().getSemester() == c.getSemester());
+        long t = UNENROLL.start();
+        try {
+            if (stripes == null) {
+                doUnenroll(s, c);
+                return;
+            }
+            synchronized (stripeFor(s)) {
+                doUnenroll(s, c);
+            }
+        } finally {
+            UNENROLL.stop(t);
+        }
+    }
+    
+    private void doUnenroll(Student s, Course c) {
+        Enrollment e = s.getEnrollment(c.getCode(), c.getSemester());
+        if (e != null) {
+            if (listener != null) {
+                listener.beforeChange();
+            }
+            s.removeEnrollment(e);
+            if (listener != null) {
+                listener.unenrolled(e);
+            }
+        }
+    }
+    
+    private Object stripeFor(Student s) {
+        int h = s.getId().hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
     }
     
     @Override
     public List<Student> search(String q) {
-        String term = q.toLowerCase();
-        return students.stream()
-                .filter(s -> s.isActive() && 
-                        (s.getName().toLowerCase().contains(term) ||
-                         s.getRegNo().toLowerCase().contains(term) ||
-                         s.getEmail().toLowerCase().contains(term)))
-                .collect(Collectors.toList());
+        long t = SEARCH.start();
+        try {
+            SearchEvent event = new SearchEvent();
+            event.begin();
+            loadAll();
+            // NGramIndex isn't thread-safe, so searches wait out registry writes
+            if (registry != null) {
+                registry.readLock().lock();
+            }
+            try {
+                List<Student> found = text.search(q).stream()
+                        .filter(Student::isActive)
+                        .collect(Collectors.toList());
+                event.finish("students", q, found.size());
+                return found;
+            } finally {
+                if (registry != null) {
+                    registry.readLock().unlock();
+                }
+            }
+        } finally {
+            SEARCH.stop(t);
+        }
     }
     
     // Helper methods
     public int getStudentCount() {
-        return (int) students.stream().filter(Student::isActive).count();
+        long t = COUNT.start();
+        try {
+            loadAll();
+            return (int) students.values().stream().filter(Student::isActive).count();
+        } finally {
+            COUNT.stop(t);
+        }
     }
     
     public boolean studentExists(String regNo) {
-        return getStudentByRegNo(regNo) != null;
+        long t = EXISTS.start();
+        try {
+            return activeByRegNo(regNo) != null;
+        } finally {
+            EXISTS.stop(t);
+        }
     }
     
     // Get students with GPA above threshold
     public List<Student> getStudentsWithGPA(double minGPA) {
-        return students.stream()
-                .filter(s -> s.isActive() && s.calculateGPA() >= minGPA)
-                .collect(Collectors.toList());
+        long t = WITH_GPA.start();
+        try {
+            loadAll();
+            return students.values().stream()
+                    .filter(s -> s.isActive() && s.calculateGPA() >= minGPA)
+                    .collect(Collectors.toList());
+        } finally {
+            WITH_GPA.stop(t);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+// src/edu/ccrm/service/StudentSource.java
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+
+import java.util.function.Consumer;
+
+// Backing store StudentService falls back to for records it hasn't loaded yet
+// (see MappedSnapshot). Every call builds fresh objects; the service caches them.
+public interface StudentSource {
+    // Any record with this id, deactivated ones included; null if none
+    Student loadById(String id);
+    
+    // The active record holding this regNo; null if none
+    Student loadByRegNo(String regNo);
+    
+    // Every record, in stored order
+    void forEach(Consumer<Student> sink);
+}
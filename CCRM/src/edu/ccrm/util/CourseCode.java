@@ -1,35 +1,104 @@
 // src/edu/ccrm/util/CourseCode.java
 package edu.ccrm.util;
 
-public final class CourseCode {
+// "ABC-123" packed into one int: 5 bits per letter, then the number.
+// Instances are interned by of(), so equal codes are the same object and
+// hashCode/equals are plain int work; indexes can key on pack() directly.
+public final class CourseCode implements Comparable<CourseCode> {
+    public static final int INVALID = -1;
+    
+    private static final int NUMBERS = 1000;
+    private static final int PREFIXES = 1 << 15; // three 5-bit letters
+    
+    // Letter prefix -> page of 1000 codes, made on first use.
+    // Read without locking: codes have only final fields, and a miss just
+    // takes the locked path.
+    private static final CourseCode[][] POOL = new CourseCode[PREFIXES][];
+    
+    private final int packed;
     private final String code;
     
-    public CourseCode(String code) {
-        if (code == null || !code.matches("[A-Z]{3}-\\d{3}")) {
+    private CourseCode(int packed, String code) {
+        this.packed = packed;
+        this.code = code;
+    }
+    
+    // The shared instance for this code
+    public static CourseCode of(String code) {
+        int p = pack(code);
+        if (p == INVALID) {
             throw new IllegalArgumentException("Invalid course code format. Expected format: ABC-123");
         }
-        this.code = code;
+        CourseCode[] page = POOL[p / NUMBERS];
+        CourseCode c = page != null ? page[p % NUMBERS] : null;
+        return c != null ? c : intern(p, code);
+    }
+    
+    private static synchronized CourseCode intern(int p, String code) {
+        CourseCode[] page = POOL[p / NUMBERS];
+        if (page == null) {
+            page = new CourseCode[NUMBERS];
+            POOL[p / NUMBERS] = page;
+        }
+        CourseCode c = page[p % NUMBERS];
+        if (c == null) {
+            c = new CourseCode(p, code);
+            page[p % NUMBERS] = c;
+        }
+        return c;
+    }
+    
+    public static boolean isValid(CharSequence code) {
+        return pack(code) != INVALID;
+    }
+    
+    // Checks the format and packs in one pass, no allocation; INVALID if bad
+    public static int pack(CharSequence code) {
+        if (code == null || code.length() != 7 || code.charAt(3) != '-') {
+            return INVALID;
+        }
+        int letters = 0;
+        for (int i = 0; i < 3; i++) {
+            char ch = code.charAt(i);
+            if (ch < 'A' || ch > 'Z') return INVALID;
+            letters = (letters << 5) | (ch - 'A');
+        }
+        int num = 0;
+        for (int i = 4; i < 7; i++) {
+            char ch = code.charAt(i);
+            if (ch < '0' || ch > '9') return INVALID;
+            num = num * 10 + (ch - '0');
+        }
+        return letters * NUMBERS + num;
     }
     
     public String getCode() {
         return code;
     }
     
+    // Packed form; sorts the same as the text
+    public int pack() {
+        return packed;
+    }
+    
     @Override
     public String toString() {
         return code;
     }
     
+    @Override
+    public int compareTo(CourseCode o) {
+        return Integer.compare(packed, o.packed);
+    }
+    
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
-        if (obj == null || getClass() != obj.getClass()) return false;
-        CourseCode that = (CourseCode) obj;
-        return code.equals(that.code);
+        return obj instanceof CourseCode && ((CourseCode) obj).packed == packed;
     }
     
     @Override
     public int hashCode() {
-        return code.hashCode();
+        return packed;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+// src/edu/ccrm/util/IntMap.java
+package edu.ccrm.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+// Int-keyed map that keeps insertion order, no boxing on lookup.
+// Values sit in insertion order in one array; an open-addressing table maps
+// key -> position. Keys are never removed (replacing keeps the position).
+public class IntMap<V> {
+    private int[] keys = new int[16];
+    private Object[] values = new Object[16];
+    private int size;
+    
+    // Position + 1 per slot, 0 = empty
+    private int[] table = new int[32];
+    
+    public IntMap() {
+    }
+    
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int mask = table.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int pos = table[i] - 1;
+            if (pos < 0) return null;
+            if (keys[pos] == key) return (V) values[pos];
+        }
+    }
+    
+    // Returns the previous value, if any
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int mask = table.length - 1;
+        int i = mix(key) & mask;
+        for (; table[i] != 0; i = (i + 1) & mask) {
+            int pos = table[i] - 1;
+            if (keys[pos] == key) {
+                V old = (V) values[pos];
+                values[pos] = value;
+                return old;
+            }
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        table[i] = ++size;
+        
+        // Keep the table at most half full
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return null;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    // Live read-only view, in insertion order
+    public List<V> values() {
+        return new AbstractList<V>() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public V get(int i) {
+                if (i >= size) throw new IndexOutOfBoundsException(i);
+                return (V) values[i];
+            }
+            
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+    
+    private void rehash(int capacity) {
+        int[] t = new int[capacity];
+        int mask = capacity - 1;
+        for (int pos = 0; pos < size; pos++) {
+            int i = mix(keys[pos]) & mask;
+            while (t[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            t[i] = pos + 1;
+        }
+        table = t;
+    }
+    
+    // Spread nearby keys (codes in one department are consecutive)
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
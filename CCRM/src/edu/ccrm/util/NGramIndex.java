@@ -0,0 +1,109 @@
+// src/edu/ccrm/util/NGramIndex.java
+package edu.ccrm.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Trigram index for case-insensitive substring search.
+// Fields are lowercased once on put(); a query walks the smallest
+// posting list of its trigrams and checks those with contains().
+public class NGramIndex<T> {
+    public static final int GRAM = 3;
+    
+    private final Map<String, Set<T>> postings = new HashMap<>();
+    private final Map<T, String[]> keys = new LinkedHashMap<>();
+    
+    public NGramIndex() {
+    }
+    
+    // Add or re-index an item
+    public void put(T item, String... fields) {
+        remove(item);
+        
+        String[] norm = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            norm[i] = normalize(fields[i]);
+        }
+        keys.put(item, norm);
+        
+        for (String f : norm) {
+            for (int i = 0; i + GRAM <= f.length(); i++) {
+                postings.computeIfAbsent(f.substring(i, i + GRAM), g -> new LinkedHashSet<>()).add(item);
+            }
+        }
+    }
+    
+    public void remove(T item) {
+        String[] norm = keys.remove(item);
+        if (norm == null) return;
+        
+        for (String f : norm) {
+            for (int i = 0; i + GRAM <= f.length(); i++) {
+                String g = f.substring(i, i + GRAM);
+                Set<T> set = postings.get(g);
+                if (set != null) {
+                    set.remove(item);
+                    if (set.isEmpty()) {
+                        postings.remove(g);
+                    }
+                }
+            }
+        }
+    }
+    
+    // Items where any field contains the query (ignoring case)
+    public List<T> search(String query) {
+        String term = normalize(query);
+        List<T> result = new ArrayList<>();
+        
+        if (term.length() < GRAM) {
+            // Too short for a gram, scan the precomputed keys instead
+            for (Map.Entry<T, String[]> e : keys.entrySet()) {
+                if (matches(e.getValue(), term)) {
+                    result.add(e.getKey());
+                }
+            }
+            return result;
+        }
+        
+        Set<T> smallest = null;
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            Set<T> set = postings.get(term.substring(i, i + GRAM));
+            if (set == null) {
+                return result; // some gram never occurs
+            }
+            if (smallest == null || set.size() < smallest.size()) {
+                smallest = set;
+            }
+        }
+        
+        for (T item : smallest) {
+            if (matches(keys.get(item), term)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+    
+    public int size() {
+        return keys.size();
+    }
+    
+    private static boolean matches(String[] fields, String term) {
+        for (String f : fields) {
+            if (f.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase();
+    }
+}
@@ -0,0 +1,106 @@
+// src/edu/ccrm/util/PageCursor.java
+package edu.ccrm.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Pages through a live sequence without copying it.
+// next() keeps reading the open iterator; prev() and jumpTo() reopen the
+// source and skip ahead, which walks the rows again but holds no more than
+// one page. The returned page list is reused, so copy it if you keep it.
+public class PageCursor<T> {
+    private final Supplier<Iterator<T>> source;
+    private final int pageSize;
+    private final List<T> page;
+    
+    private Iterator<T> it;
+    private long offset; // position of the page's first row
+    private long read;   // rows taken from 'it' so far
+    
+    public PageCursor(Supplier<Iterator<T>> source, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.source = source;
+        this.pageSize = pageSize;
+        this.page = new ArrayList<>(pageSize);
+    }
+    
+    public List<T> first() {
+        return seek(0);
+    }
+    
+    // Stays on the last page once there is nothing more
+    public List<T> next() {
+        if (it == null) {
+            return first();
+        }
+        if (it.hasNext()) {
+            offset = read;
+            page.clear();
+            fill();
+        }
+        return page;
+    }
+    
+    public List<T> prev() {
+        return seek(Math.max(0, offset - pageSize));
+    }
+    
+    // Starts the page at the first row matching; false (page unchanged) if none
+    public boolean jumpTo(Predicate<? super T> match) {
+        Iterator<T> scan = source.get();
+        long i = 0;
+        while (scan.hasNext()) {
+            T row = scan.next();
+            if (match.test(row)) {
+                it = scan;
+                offset = i;
+                read = i + 1;
+                page.clear();
+                page.add(row);
+                fill();
+                return true;
+            }
+            i++;
+        }
+        return false;
+    }
+    
+    public List<T> getPage() {
+        return page;
+    }
+    
+    public long getOffset() {
+        return offset;
+    }
+    
+    public boolean hasNext() {
+        return it != null && it.hasNext();
+    }
+    
+    private List<T> seek(long pos) {
+        it = source.get();
+        long skipped = 0;
+        while (skipped < pos && it.hasNext()) {
+            it.next();
+            skipped++;
+        }
+        offset = skipped;
+        read = skipped;
+        page.clear();
+        fill();
+        return page;
+    }
+    
+    // Tops the page up to pageSize from the open iterator
+    private void fill() {
+        while (page.size() < pageSize && it.hasNext()) {
+            page.add(it.next());
+            read++;
+        }
+    }
+}
\ No newline at end of file
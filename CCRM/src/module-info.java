@@ -1,8 +1,15 @@
-/**
- * 
- */
-/**
- * 
- */
 module CCRM {
+    requires java.management;
+    requires jdk.jfr;
+    
+    exports edu.ccrm;
+    exports edu.ccrm.config;
+    exports edu.ccrm.domain;
+    // edu.ccrm.events stays internal: JFR records them without the export,
+    // and exporting would leak jdk.jfr.Event into our API
+    exports edu.ccrm.exception;
+    exports edu.ccrm.io;
+    exports edu.ccrm.metrics;
+    exports edu.ccrm.service;
+    exports edu.ccrm.util;
 }
\ No newline at end of file